@@ -0,0 +1,527 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+// Throughput and allocation benchmarks for the Model operations the game calls most
+// Every benchmark runs against synthetic dictionaries of increasing size (see SyntheticDictionary), in
+// timed warm-up and measurement iterations on one thread. Allocation per operation is read from the
+// thread's allocated-bytes counter, the figure JMH reports as gc.alloc.rate.norm with -prof gc.
+// Like JMH's forks, each benchmark runs several times, each time in a fresh JVM with models of its own,
+// so no benchmark inherits another's JIT profile, heap or warmed caches. The forks of all benchmarks
+// are run in a shuffled order, so drift in the machine's speed is not pinned on one benchmark.
+// The spread between forks is reported next to the spread between iterations; a large fork spread
+// means the figure depends on how the JIT happened to compile that run.
+// Results are printed as a table and written as JSON in JMH's result layout, so the same tools can
+// compare runs across releases.
+// Run from the coursework directory, with both modules' classes on the class path:
+// Usage: java ModelBenchmark [-sizes 0,50000,200000] [-forks 3] [-warmup 3] [-iterations 5] [-time ms]
+//                            [-only name] [-json results.json] [-dictionary dictionary.txt]
+// Size 0 is the real dictionary; the largest size allowed is SyntheticDictionary.maxSize()
+// -forks 0 runs every benchmark in this JVM instead, which is quicker but lets them affect each other.
+// A benchmark with an allocation budget that allocates more per operation is reported, and makes the run
+// exit with status 1 once the results are written
+public final class ModelBenchmark {
+    private static final long SEED = 42L;
+    private static final long BATCH_NANOS = 1_000;
+    private static final int MAX_BATCH = 1 << 16;
+    // Allocation budget of starting a game
+    private static final double NEW_GAME_BYTES = 256;
+    // Prefix of the line a forked JVM prints its scores on
+    private static final String RESULT_LINE = "RESULT ";
+
+    // Keeps every result alive, so the JIT cannot drop the work that produced it
+    private static long sink;
+
+    // One operation under test; returns something derived from its result
+    private interface Operation {
+        long run();
+    }
+
+    // A named operation, the setup it needs before each iteration, and optionally the most it may allocate
+    private static final class Benchmark {
+        final String name;
+        final Runnable setup;
+        final Operation operation;
+        final double maxBytesPerOp;
+
+        Benchmark(String name, Runnable setup, Operation operation) {
+            this(name, setup, operation, Double.NaN);
+        }
+
+        Benchmark(String name, Runnable setup, Operation operation, double maxBytesPerOp) {
+            this.name = name;
+            this.setup = setup;
+            this.operation = operation;
+            this.maxBytesPerOp = maxBytesPerOp;
+        }
+    }
+
+    // Creates a benchmark together with the models it runs on, so no two benchmarks share a model
+    private interface Fixture {
+        Benchmark create();
+    }
+
+    // Scores of one benchmark at one dictionary size, one row of iterations per fork
+    private static final class Result {
+        final String name;
+        final int dictionarySize;
+        final double maxBytesPerOp;
+        final List<double[]> opsPerSecond = new ArrayList<>();
+        final List<double[]> bytesPerOp = new ArrayList<>();
+
+        Result(String name, int dictionarySize, double maxBytesPerOp) {
+            this.name = name;
+            this.dictionarySize = dictionarySize;
+            this.maxBytesPerOp = maxBytesPerOp;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("sizes", "0,50000,200000");
+        options.put("forks", "3");
+        options.put("warmup", "3");
+        options.put("iterations", "5");
+        options.put("time", "1000");
+        options.put("only", "");
+        options.put("json", "model-benchmark.json");
+        options.put("dictionary", "dictionary.txt");
+        // Set by the parent on a forked JVM: the benchmark to run and the dictionary file to run it on
+        options.put("fork", "");
+        options.put("file", "");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("-") || !options.containsKey(args[i].substring(1))) {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+            options.put(args[i].substring(1), args[i + 1]);
+        }
+        int forks = Integer.parseInt(options.get("forks"));
+        int warmup = Integer.parseInt(options.get("warmup"));
+        int iterations = Integer.parseInt(options.get("iterations"));
+        long iterationNanos = Long.parseLong(options.get("time")) * 1_000_000L;
+
+        if (!options.get("fork").isEmpty()) {
+            runFork(options.get("fork"), options.get("file"), warmup, iterations, iterationNanos);
+            return;
+        }
+
+        Path directory = Files.createTempDirectory("weaver-bench");
+        List<Result> results = new ArrayList<>();
+        List<String> overBudget = new ArrayList<>();
+        System.out.printf("%-26s %10s %16s %12s %10s %14s%n", "Benchmark", "words", "ops/s", "error", "fork sd", "B/op");
+        for (String size : options.get("sizes").split(",")) {
+            Path file = SyntheticDictionary.write(directory, options.get("dictionary"), Integer.parseInt(size.trim()), SEED);
+            Map<String, Fixture> fixtures = benchmarks(file.toString());
+            int dictionarySize = LexiconCache.shared(file.toString()).size();
+
+            // One run per fork of every selected benchmark, in a shuffled order
+            Map<String, Result> sized = new LinkedHashMap<>();
+            List<String> runs = new ArrayList<>();
+            for (String name : fixtures.keySet()) {
+                if (name.contains(options.get("only"))) {
+                    for (int fork = 0; fork < Math.max(1, forks); fork++) {
+                        runs.add(name);
+                    }
+                }
+            }
+            Collections.shuffle(runs, new Random(SEED + dictionarySize));
+            for (String name : runs) {
+                Result result = forks > 0
+                        ? fork(name, file, warmup, iterations, iterationNanos)
+                        : measure(fixtures.get(name).create(), warmup, iterations, iterationNanos);
+                Result total = sized.computeIfAbsent(name, n -> new Result(n, dictionarySize, result.maxBytesPerOp));
+                total.opsPerSecond.addAll(result.opsPerSecond);
+                total.bytesPerOp.addAll(result.bytesPerOp);
+            }
+
+            for (String name : fixtures.keySet()) {
+                Result result = sized.get(name);
+                if (result == null) {
+                    continue;
+                }
+                results.add(result);
+                double[] ops = flatten(result.opsPerSecond);
+                double bytes = mean(flatten(result.bytesPerOp));
+                System.out.printf("%-26s %10d %16.1f %12.1f %9.1f%% %14.1f%n", result.name, result.dictionarySize,
+                        mean(ops), error(ops), 100 * forkSpread(result.opsPerSecond) / mean(ops), bytes);
+                if (bytes > result.maxBytesPerOp) {
+                    overBudget.add(String.format(Locale.ROOT, "%s at %d words allocates %.1f B/op, over its budget of %.0f",
+                            result.name, result.dictionarySize, bytes, result.maxBytesPerOp));
+                }
+            }
+        }
+
+        writeJson(Path.of(options.get("json")), results, Math.max(1, forks), warmup, iterations, iterationNanos);
+        System.out.println("Results written to " + options.get("json") + " (sink " + (sink & 1) + ")");
+        if (!overBudget.isEmpty()) {
+            overBudget.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    // Runs one benchmark in a fresh JVM with this JVM's options and class path, and reads back its scores
+    private static Result fork(String name, Path file, int warmup, int iterations, long iterationNanos)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), ModelBenchmark.class.getName(),
+                "-fork", name, "-file", file.toString(), "-warmup", String.valueOf(warmup),
+                "-iterations", String.valueOf(iterations), "-time", String.valueOf(iterationNanos / 1_000_000)));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+
+        String line = null;
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String read;
+            while ((read = output.readLine()) != null) {
+                if (read.startsWith(RESULT_LINE)) {
+                    line = read;
+                }
+            }
+        }
+        if (process.waitFor() != 0 || line == null) {
+            throw new IOException("Forked benchmark " + name + " failed with exit status " + process.exitValue());
+        }
+
+        // RESULT <budget> <ops/s,...> <B/op,...>
+        String[] fields = line.substring(RESULT_LINE.length()).split(" ");
+        Result result = new Result(name, 0, Double.parseDouble(fields[0]));
+        result.opsPerSecond.add(parse(fields[1]));
+        result.bytesPerOp.add(parse(fields[2]));
+        return result;
+    }
+
+    // The forked side of fork(): measures one benchmark and prints its scores on one line
+    private static void runFork(String name, String file, int warmup, int iterations, long iterationNanos) {
+        Fixture fixture = benchmarks(file).get(name);
+        if (fixture == null) {
+            throw new IllegalArgumentException("Unknown benchmark: " + name);
+        }
+        Result result = measure(fixture.create(), warmup, iterations, iterationNanos);
+        System.out.println(RESULT_LINE + result.maxBytesPerOp + " " + join(result.opsPerSecond.get(0)) + " "
+                + join(result.bytesPerOp.get(0)) + " (sink " + (sink & 1) + ")");
+    }
+
+    // Lists every benchmark over one dictionary file; each fixture builds its own models when created
+    // Games are chosen by sampling random games and keeping the closest and the farthest pair seen,
+    // which works at any size; newGame(difficulty) would need the all-pairs distance table
+    private static Map<String, Fixture> benchmarks(String dictionary) {
+        Lexicon lexicon = LexiconCache.shared(dictionary);
+        Model probe = new Model(lexicon);
+        probe.setRandomSeed(SEED);
+        probe.setRandomWords(true);
+        String[] shortPair = null;
+        String[] longPair = null;
+        int shortest = Integer.MAX_VALUE;
+        int longest = 0;
+        for (int i = 0; i < 200; i++) {
+            probe.newGame();
+            int distance = probe.getDistanceToTarget();
+            if (distance < shortest) {
+                shortest = distance;
+                shortPair = new String[]{probe.getStartWord(), probe.getTargetWord()};
+            }
+            if (distance > longest) {
+                longest = distance;
+                longPair = new String[]{probe.getStartWord(), probe.getTargetWord()};
+            }
+        }
+        String[] shortGame = shortPair;
+        String[] longGame = longPair;
+        List<String> ladder = modelFor(lexicon, longGame).findPath();
+
+        // Mostly valid one-letter changes of the start word, plus random strings that are rarely words
+        String[] candidates = new String[1024];
+        SplittableRandom random = new SplittableRandom(SEED);
+        String start = ladder.get(0);
+        for (int i = 0; i < candidates.length; i++) {
+            char[] letters = start.toCharArray();
+            if (i % 4 == 3) {
+                for (int j = 0; j < letters.length; j++) {
+                    letters[j] = (char) ('a' + random.nextInt(26));
+                }
+            } else {
+                letters[random.nextInt(letters.length)] = (char) ('a' + random.nextInt(26));
+            }
+            candidates[i] = new String(letters);
+        }
+
+        PathCache cache = lexicon.pathCache();
+        Map<String, Fixture> benchmarks = new LinkedHashMap<>();
+        benchmarks.put("isValidWord", () -> {
+            Model model = modelFor(lexicon, longGame);
+            int[] next = new int[1];
+            return new Benchmark("isValidWord", model::resetGame,
+                    () -> model.isValidWord(candidates[next[0]++ & (candidates.length - 1)]) ? 1 : 0);
+        });
+        // Plays the optimal ladder over and over; the reset after each win is part of the cost
+        benchmarks.put("submitWord", () -> {
+            Model model = modelFor(lexicon, longGame);
+            return new Benchmark("submitWord", model::resetGame, () -> {
+                if (model.hasWon()) {
+                    model.resetGame();
+                }
+                return model.submitWord(ladder.get(model.getCurrentAttempt() + 1)) ? 1 : 0;
+            });
+        });
+        // The cache is emptied before every search, so these measure the path finder itself
+        benchmarks.put("findPath.short", () -> {
+            Model model = modelFor(lexicon, shortGame);
+            return new Benchmark("findPath.short", null, () -> {
+                cache.invalidate();
+                return model.findPath().size();
+            });
+        });
+        benchmarks.put("findPath.long", () -> {
+            Model model = modelFor(lexicon, longGame);
+            return new Benchmark("findPath.long", null, () -> {
+                cache.invalidate();
+                return model.findPath().size();
+            });
+        });
+        benchmarks.put("findPath.longCached", () -> {
+            Model model = modelFor(lexicon, longGame);
+            return new Benchmark("findPath.longCached", null, () -> model.findPath().size());
+        });
+        // Random words off: the default SALE -> OPAL game, unreachable in every synthetic dictionary
+        benchmarks.put("findPath.unreachable", () -> {
+            Model model = new Model(lexicon);
+            return new Benchmark("findPath.unreachable", null, () -> model.findPath().size());
+        });
+        benchmarks.put("getFeedback", () -> {
+            Model model = modelFor(lexicon, longGame);
+            int[] next = new int[1];
+            return new Benchmark("getFeedback", null,
+                    () -> model.getFeedback(candidates[next[0]++ & (candidates.length - 1)])[0]);
+        });
+        benchmarks.put("getAttempts", () -> {
+            Model model = modelFor(lexicon, longGame);
+            for (int i = 1; i < ladder.size() - 1; i++) {
+                model.submitWord(ladder.get(i));
+            }
+            return new Benchmark("getAttempts", null, () -> model.getAttempts().size());
+        });
+        // Starting a game must not search the word graph or allocate per word; the two Strings and the
+        // GameStarted event come to about 150 bytes
+        benchmarks.put("newGame.random", () -> {
+            Model model = randomModel(lexicon);
+            return new Benchmark("newGame.random", null, () -> {
+                model.newGame();
+                return model.getTargetWord().hashCode();
+            }, NEW_GAME_BYTES);
+        });
+        // Needs the all-pairs distance table, so only runs on dictionaries small enough to have one
+        if (lexicon.size() <= DistanceTable.MAX_WORDS) {
+            int difficulty = Math.max(1, longest / 2);
+            benchmarks.put("newGame.difficulty", () -> {
+                Model model = randomModel(lexicon);
+                return new Benchmark("newGame.difficulty", () -> model.newGame(difficulty), () -> {
+                    model.newGame(difficulty);
+                    return model.getTargetWord().hashCode();
+                }, NEW_GAME_BYTES);
+            });
+        }
+        // The same calls through InstrumentedModel; the difference from the plain ones is its overhead
+        benchmarks.put("isValidWord.instrumented", () -> {
+            InstrumentedModel model = new InstrumentedModel(modelFor(lexicon, longGame));
+            int[] next = new int[1];
+            return new Benchmark("isValidWord.instrumented", model::resetGame,
+                    () -> model.isValidWord(candidates[next[0]++ & (candidates.length - 1)]) ? 1 : 0);
+        });
+        benchmarks.put("submitWord.instrumented", () -> {
+            InstrumentedModel model = new InstrumentedModel(modelFor(lexicon, longGame));
+            return new Benchmark("submitWord.instrumented", model::resetGame, () -> {
+                if (model.hasWon()) {
+                    model.resetGame();
+                }
+                return model.submitWord(ladder.get(model.getCurrentAttempt() + 1)) ? 1 : 0;
+            });
+        });
+        benchmarks.put("getFeedback.instrumented", () -> {
+            InstrumentedModel model = new InstrumentedModel(modelFor(lexicon, longGame));
+            int[] next = new int[1];
+            return new Benchmark("getFeedback.instrumented", null,
+                    () -> model.getFeedback(candidates[next[0]++ & (candidates.length - 1)])[0]);
+        });
+        // What Model() does on first use of a dictionary: load it through the snapshot, build the graph, start a game
+        benchmarks.put("constructor", () -> new Benchmark("constructor", null, () -> {
+            LexiconCache.clear();
+            return new Model(LexiconCache.shared(dictionary)).getStartWord().hashCode();
+        }));
+        return benchmarks;
+    }
+
+    private static Model randomModel(Lexicon lexicon) {
+        Model model = new Model(lexicon);
+        model.setRandomSeed(SEED);
+        model.setRandomWords(true);
+        return model;
+    }
+
+    private static Model modelFor(Lexicon lexicon, String[] words) {
+        // Replays newGame() with the seed the pair was sampled under until it comes round again
+        Model model = randomModel(lexicon);
+        while (!model.getStartWord().equals(words[0]) || !model.getTargetWord().equals(words[1])) {
+            model.newGame();
+        }
+        return model;
+    }
+
+    // Runs the warm-up iterations, then returns the throughput and allocation of each measured one
+    private static Result measure(Benchmark benchmark, int warmup, int iterations, long iterationNanos) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        double[] opsPerSecond = new double[iterations];
+        double[] bytesPerOp = new double[iterations];
+
+        int batch = 1;
+        for (int iteration = -warmup; iteration < iterations; iteration++) {
+            if (benchmark.setup != null) {
+                benchmark.setup.run();
+            }
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long begin = System.nanoTime();
+            long deadline = begin + iterationNanos;
+            long operations = 0;
+            long now;
+            // Time is read once per batch so the clock does not dominate fast operations; the batch
+            // doubles until it takes at least a microsecond, so slow operations still stop on time
+            long batchBegin = begin;
+            do {
+                for (int i = 0; i < batch; i++) {
+                    sink += benchmark.operation.run();
+                }
+                operations += batch;
+                now = System.nanoTime();
+                if (now - batchBegin < BATCH_NANOS && batch < MAX_BATCH) {
+                    batch *= 2;
+                }
+                batchBegin = now;
+            } while (now < deadline);
+            long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+            if (iteration >= 0) {
+                opsPerSecond[iteration] = operations / ((now - begin) / 1e9);
+                bytesPerOp[iteration] = (double) allocated / operations;
+            }
+        }
+        Result result = new Result(benchmark.name, 0, benchmark.maxBytesPerOp);
+        result.opsPerSecond.add(opsPerSecond);
+        result.bytesPerOp.add(bytesPerOp);
+        return result;
+    }
+
+    private static double[] flatten(List<double[]> forks) {
+        return forks.stream().flatMapToDouble(Arrays::stream).toArray();
+    }
+
+    private static String join(double[] values) {
+        StringBuilder joined = new StringBuilder();
+        for (double value : values) {
+            joined.append(joined.length() == 0 ? "" : ",").append(value);
+        }
+        return joined.toString();
+    }
+
+    private static double[] parse(String joined) {
+        return Arrays.stream(joined.split(",")).mapToDouble(Double::parseDouble).toArray();
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    // Sample standard deviation over the measured iterations
+    private static double error(double[] values) {
+        if (values.length < 2) {
+            return Double.NaN;
+        }
+        double mean = mean(values);
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(squares / (values.length - 1));
+    }
+
+    // Sample standard deviation of the forks' mean scores
+    private static double forkSpread(List<double[]> forks) {
+        double[] means = new double[forks.size()];
+        for (int i = 0; i < means.length; i++) {
+            means[i] = mean(forks.get(i));
+        }
+        return error(means);
+    }
+
+    // Writes the results as a JSON array with the fields JMH writes for -rf json
+    private static void writeJson(Path file, List<Result> results, int forks, int warmup, int iterations,
+                                  long iterationNanos) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("[");
+            for (int i = 0; i < results.size(); i++) {
+                Result result = results.get(i);
+                out.println("    {");
+                out.println("        \"benchmark\" : \"ModelBenchmark." + result.name + "\",");
+                out.println("        \"mode\" : \"thrpt\",");
+                out.println("        \"threads\" : 1,");
+                out.println("        \"forks\" : " + forks + ",");
+                out.println("        \"warmupIterations\" : " + warmup + ",");
+                out.println("        \"warmupTime\" : \"" + iterationNanos / 1_000_000 + " ms\",");
+                out.println("        \"measurementIterations\" : " + iterations + ",");
+                out.println("        \"measurementTime\" : \"" + iterationNanos / 1_000_000 + " ms\",");
+                out.println("        \"params\" : {");
+                out.println("            \"dictionarySize\" : \"" + result.dictionarySize + "\"");
+                out.println("        },");
+                out.println("        \"primaryMetric\" : " + metric(result.opsPerSecond, "ops/s") + ",");
+                out.println("        \"secondaryMetrics\" : {");
+                out.println("            \"gc.alloc.rate.norm\" : " + metric(result.bytesPerOp, "B/op"));
+                out.println("        }");
+                out.println(i + 1 < results.size() ? "    }," : "    }");
+            }
+            out.println("]");
+        }
+    }
+
+    // One metric with its raw data as JMH lays it out: one array of iteration scores per fork
+    private static String metric(List<double[]> forks, String unit) {
+        double[] values = flatten(forks);
+        StringBuilder json = new StringBuilder("{ \"score\" : ").append(number(mean(values)))
+                .append(", \"scoreError\" : ").append(number(error(values)))
+                .append(", \"forkError\" : ").append(number(forkSpread(forks)))
+                .append(", \"scoreUnit\" : \"").append(unit).append("\", \"rawData\" : [ ");
+        for (int fork = 0; fork < forks.size(); fork++) {
+            json.append(fork == 0 ? "[ " : ", [ ");
+            double[] scores = forks.get(fork);
+            for (int i = 0; i < scores.length; i++) {
+                json.append(i == 0 ? "" : ", ").append(number(scores[i]));
+            }
+            json.append(" ]");
+        }
+        return json.append(" ] }").toString();
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) ? "\"NaN\"" : String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,77 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+// Writes text dictionaries of a chosen size for ModelBenchmark
+// Each one holds every word of the real dictionary plus random 4-letter words up to the requested size,
+// so the default game's words are always present and larger sizes mean a denser, bigger word graph.
+// Every neighbour of the default target OPAL is left out, which makes the default game SALE -> OPAL
+// a pair in different components and gives the unreachable findPath case at every size
+public final class SyntheticDictionary {
+    // Words of the form a-z only; codes using letter values 26-31 do not spell anything
+    static final int ALL_WORDS = 26 * 26 * 26 * 26;
+    static final String ISOLATED_WORD = "opal";
+
+    private SyntheticDictionary() {
+    }
+
+    // Returns the largest size that can be generated: every word except the isolated word's neighbours
+    static int maxSize() {
+        return ALL_WORDS - Lexicon.WORD_LENGTH * 25;
+    }
+
+    // Writes a dictionary of size words, or of the real dictionary's words if that is more, and returns its path
+    // size 0 means the real dictionary without the isolated word's neighbours
+    static Path write(Path directory, String realDictionary, int size, long seed) throws IOException {
+        // Precondition: size is not above what the alphabet allows
+        assert size <= maxSize() : "At most " + maxSize() + " words can be generated";
+
+        boolean[] blocked = new boolean[Lexicon.CODE_SPACE];
+        int isolated = Lexicon.encode(ISOLATED_WORD);
+        for (int position = 0; position < Lexicon.WORD_LENGTH; position++) {
+            for (int letter = 0; letter < 26; letter++) {
+                int neighbour = Lexicon.withLetter(isolated, position, letter);
+                blocked[neighbour] = neighbour != isolated;
+            }
+        }
+
+        boolean[] chosen = new boolean[Lexicon.CODE_SPACE];
+        int count = 0;
+        for (String line : Files.readAllLines(Path.of(realDictionary), StandardCharsets.UTF_8)) {
+            int code = Lexicon.encode(line.trim());
+            if (code != Lexicon.NO_CODE && !blocked[code] && !chosen[code]) {
+                chosen[code] = true;
+                count++;
+            }
+        }
+        chosen[isolated] = true;
+        // Postcondition of the base: both default words are present
+        assert chosen[Lexicon.encode("sale")] : "Real dictionary must contain the default start word";
+
+        SplittableRandom random = new SplittableRandom(seed);
+        while (count < size) {
+            int code = 0;
+            for (int i = 0; i < Lexicon.WORD_LENGTH; i++) {
+                code = (code << Lexicon.BITS_PER_LETTER) | random.nextInt(26);
+            }
+            if (!blocked[code] && !chosen[code]) {
+                chosen[code] = true;
+                count++;
+            }
+        }
+
+        Path file = directory.resolve("words-" + (size == 0 ? "real" : String.valueOf(size)) + ".txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (int code = 0; code < Lexicon.CODE_SPACE; code++) {
+                if (chosen[code]) {
+                    writer.write(Lexicon.decode(code));
+                    writer.newLine();
+                }
+            }
+        }
+        return file;
+    }
+}
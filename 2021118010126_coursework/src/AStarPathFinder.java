@@ -0,0 +1,140 @@
+import java.util.Arrays;
+
+// A* search over a WordGraph guided by the number of letters that differ from the target
+// One move changes one letter, so the Hamming distance never overestimates and is consistent:
+// the first time the target is taken off the open set its path is optimal
+// Search state is kept between calls, so an instance must not be shared between threads
+public class AStarPathFinder implements PathFinder {
+    private static final int[] NO_PATH = new int[0];
+
+    // Open-set keys pack f, then inverted g (deeper first on ties), then the word id
+    private static final int ID_BITS = 20;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final int MAX_DEPTH = (1 << ID_BITS) - 1;
+
+    private long[] heap = new long[64];
+    private int heapSize;
+    private int[] costs;    // Best known g for each vertex in this search
+    private int[] parents;
+    private int[] seen;     // Stamp of the search that last gave the vertex a cost
+    private int[] closed;   // Stamp of the search that last expanded the vertex
+    private int stamp;
+    private int nodesExpanded;
+
+    @Override
+    public int[] findPath(Lexicon lexicon, int start, int target) {
+        WordGraph graph = lexicon.graph();
+        // Precondition: both words are vertices of the graph
+        assert start >= 0 && start < graph.size() : "Start must be a word id";
+        assert target >= 0 && target < graph.size() : "Target must be a word id";
+        assert graph.size() <= (1 << ID_BITS) : "Word ids must fit in the open-set key";
+
+        // Scratch arrays are reused between searches; a new stamp marks everything unvisited
+        if (costs == null || costs.length != graph.size()) {
+            costs = new int[graph.size()];
+            parents = new int[graph.size()];
+            seen = new int[graph.size()];
+            closed = new int[graph.size()];
+            stamp = 0;
+        }
+        stamp++;
+        nodesExpanded = 0;
+        heapSize = 0;
+
+        int targetCode = lexicon.code(target);
+        seen[start] = stamp;
+        costs[start] = 0;
+        parents[start] = -1;
+        push(key(Lexicon.hammingDistance(lexicon.code(start), targetCode), 0, start));
+
+        while (heapSize > 0) {
+            int current = (int) (pop() & ID_MASK);
+            if (closed[current] == stamp) {
+                continue; // Stale entry left behind by a cheaper push
+            }
+            closed[current] = stamp;
+            nodesExpanded++;
+            PathFinder.checkCancelled(nodesExpanded);
+
+            if (current == target) {
+                return reconstruct(target);
+            }
+
+            int nextCost = costs[current] + 1;
+            for (int edge = graph.edgeStart(current), end = graph.edgeEnd(current); edge < end; edge++) {
+                int neighbour = graph.target(edge);
+                if (closed[neighbour] == stamp || (seen[neighbour] == stamp && costs[neighbour] <= nextCost)) {
+                    continue;
+                }
+                seen[neighbour] = stamp;
+                costs[neighbour] = nextCost;
+                parents[neighbour] = current;
+                int estimate = nextCost + Lexicon.hammingDistance(lexicon.code(neighbour), targetCode);
+                push(key(estimate, nextCost, neighbour));
+            }
+        }
+
+        // No path found
+        return NO_PATH;
+    }
+
+    private int[] reconstruct(int target) {
+        int[] path = new int[costs[target] + 1];
+        int index = path.length - 1;
+        for (int id = target; id >= 0; id = parents[id]) {
+            path[index--] = id;
+        }
+        return path;
+    }
+
+    private static long key(int estimate, int cost, int id) {
+        return ((long) estimate << (2 * ID_BITS)) | ((long) (MAX_DEPTH - cost) << ID_BITS) | id;
+    }
+
+    // Binary min-heap over packed keys
+    private void push(long key) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        int index = heapSize++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int index = 0;
+        int half = heapSize >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = last;
+        return top;
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String getName() {
+        return "astar";
+    }
+}
@@ -0,0 +1,176 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.Arrays;
+import java.util.List;
+
+// The column of attempt rows on the game board, painted directly instead of built from components
+// Each attempt is stored as a packed word code and its packed Feedback, so a row costs two ints however
+// long the game runs. paintComponent only draws the rows inside the clip, which inside a scroll pane is
+// the visible part of the viewport, so paint time stays the same for 10 or 10,000 attempts
+public class AttemptsBoard extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    static final Font TILE_FONT = new Font("Arial", Font.BOLD, 24);
+    static final Color EMPTY = Color.LIGHT_GRAY;
+    static final Color TYPED = Color.WHITE;
+    static final Color GREEN = new Color(76, 175, 80);
+    static final Color YELLOW = new Color(255, 235, 59);
+    static final Color GREY = new Color(158, 158, 158);
+
+    // Tile size and gaps, matching the word panels above and below the board
+    private static final int TILE_SIZE = 60;
+    private static final int TILE_GAP = 5;
+    private static final int ROW_GAP = 5;
+    private static final int ROW_HEIGHT = TILE_SIZE + ROW_GAP;
+    private static final String[] LETTERS = new String[26];
+
+    static {
+        for (int i = 0; i < LETTERS.length; i++) {
+            LETTERS[i] = String.valueOf((char) ('A' + i));
+        }
+    }
+
+    private int[] codes = new int[16];     // Packed word code of each attempt, in board order
+    private int[] feedback = new int[16];  // Packed Feedback of each attempt, parallel to codes
+    private int rowCount;
+
+    public AttemptsBoard() {
+        setFont(TILE_FONT);
+        setForeground(Color.BLACK);
+    }
+
+    // Creates a word panel with 4 cells for displaying letters
+    static JPanel createWordPanel() {
+        JPanel panel = new JPanel(new GridLayout(1, 4, 5, 5));
+        panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 70));
+
+        for (int i = 0; i < 4; i++) {
+            JLabel label = new JLabel(" ");
+            label.setOpaque(true);
+            label.setBackground(EMPTY);
+            label.setHorizontalAlignment(SwingConstants.CENTER);
+            label.setFont(TILE_FONT);
+            label.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+            label.setPreferredSize(new Dimension(60, 60));
+            panel.add(label);
+        }
+
+        return panel;
+    }
+
+    // Sets a tile's letter and colour, touching the label only if either differs
+    static void setTile(JLabel tile, String text, Color background) {
+        if (!text.equals(tile.getText())) {
+            tile.setText(text);
+        }
+        if (!background.equals(tile.getBackground())) {
+            tile.setBackground(background);
+        }
+    }
+
+    // Returns the shared upper-case tile text for a letter
+    static String letter(char c) {
+        int index = Character.toUpperCase(c) - 'A';
+        return index >= 0 && index < LETTERS.length ? LETTERS[index] : String.valueOf(c);
+    }
+
+    // Returns the tile colour for one position of packed feedback
+    static Color colorOf(int feedback, int position) {
+        int state = Feedback.stateAt(feedback, position);
+        if (state == Feedback.CORRECT) {
+            return GREEN;
+        } else if (state == Feedback.PRESENT) {
+            return YELLOW;
+        }
+        return GREY;
+    }
+
+    // Returns the number of attempt rows shown
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    // Adds a row for a new attempt below the others
+    public void appendAttempt(String word, int feedback) {
+        // Precondition: attempts are dictionary words
+        assert Lexicon.encode(word) != Lexicon.NO_CODE : "Attempt must be a 4-letter word";
+
+        if (rowCount == codes.length) {
+            codes = Arrays.copyOf(codes, rowCount * 2);
+            this.feedback = Arrays.copyOf(this.feedback, rowCount * 2);
+        }
+        codes[rowCount] = Lexicon.encode(word);
+        this.feedback[rowCount] = feedback;
+        rowCount++;
+
+        // Only the height changes, and only the new row needs painting
+        revalidate();
+        repaint(0, (rowCount - 1) * ROW_HEIGHT, getWidth(), ROW_HEIGHT);
+    }
+
+    // Makes the board show exactly the model's attempts
+    public void showAttempts(IModel model) {
+        List<String> attempts = model.getAttempts();
+        rowCount = 0;
+        for (int i = 0; i < attempts.size(); i++) {
+            appendAttempt(attempts.get(i), model.getAttemptFeedback(i));
+        }
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        Insets insets = getInsets();
+        return new Dimension(4 * TILE_SIZE + 3 * TILE_GAP + insets.left + insets.right,
+                rowCount * ROW_HEIGHT + insets.top + insets.bottom);
+    }
+
+    // Stretches across the board like the word panels, but never taller than its rows
+    @Override
+    public Dimension getMaximumSize() {
+        if (isMaximumSizeSet()) {
+            return super.getMaximumSize();
+        }
+        return new Dimension(Integer.MAX_VALUE, getPreferredSize().height);
+    }
+
+    // Paints the rows that intersect the clip, one fill, border and letter per tile
+    // A paint slower than a frame is recorded as a BoardRedrawEvent when Flight Recorder is on
+    @Override
+    protected void paintComponent(Graphics g) {
+        BoardRedrawEvent event = new BoardRedrawEvent();
+        event.begin();
+        Insets insets = getInsets();
+        int width = getWidth() - insets.left - insets.right;
+        int tileWidth = Math.max(1, (width - 3 * TILE_GAP) / 4);
+
+        Rectangle clip = g.getClipBounds();
+        int clipTop = clip != null ? clip.y : 0;
+        int clipBottom = clip != null ? clip.y + clip.height : getHeight();
+        int first = Math.max(0, (clipTop - insets.top) / ROW_HEIGHT);
+        int last = Math.min(rowCount - 1, (clipBottom - insets.top) / ROW_HEIGHT);
+
+        g.setFont(getFont());
+        FontMetrics metrics = g.getFontMetrics();
+        int baseline = (TILE_SIZE - metrics.getHeight()) / 2 + metrics.getAscent();
+        for (int row = first; row <= last; row++) {
+            int y = insets.top + row * ROW_HEIGHT;
+            for (int j = 0; j < 4; j++) {
+                int x = insets.left + j * (tileWidth + TILE_GAP);
+                g.setColor(colorOf(feedback[row], j));
+                g.fillRect(x, y, tileWidth, TILE_SIZE);
+                g.setColor(Color.BLACK);
+                g.drawRect(x, y, tileWidth - 1, TILE_SIZE - 1);
+
+                String letter = LETTERS[Lexicon.letterAt(codes[row], j)];
+                g.setColor(getForeground());
+                g.drawString(letter, x + (tileWidth - metrics.stringWidth(letter)) / 2, y + baseline);
+            }
+        }
+        event.report("paint", rowCount, Math.max(0, last - first + 1));
+    }
+}
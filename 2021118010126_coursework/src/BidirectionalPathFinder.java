@@ -0,0 +1,139 @@
+// Breadth-first search grown from both the start and the target word over a WordGraph
+// Each step expands one whole layer of whichever frontier is smaller, and the search stops
+// after the first layer in which the two sides meet, keeping the shortest joining edge found
+// Search state is kept between calls, so an instance must not be shared between threads
+public class BidirectionalPathFinder implements PathFinder {
+    private static final int[] NO_PATH = new int[0];
+
+    // Search state for one direction; the current layer is queue[head, tail)
+    private static final class Frontier {
+        int[] queue;
+        int[] parents;
+        int[] depths;
+        int[] visited;  // Holds the stamp of the search that last reached each vertex
+        int head;
+        int tail;
+
+        void ensureCapacity(int size) {
+            if (queue == null || queue.length != size) {
+                queue = new int[size];
+                parents = new int[size];
+                depths = new int[size];
+                visited = new int[size];
+            }
+        }
+
+        void seed(int id, int stamp) {
+            head = 0;
+            tail = 0;
+            queue[tail++] = id;
+            visited[id] = stamp;
+            parents[id] = -1;
+            depths[id] = 0;
+        }
+
+        int layerSize() {
+            return tail - head;
+        }
+    }
+
+    private final Frontier forward = new Frontier();
+    private final Frontier backward = new Frontier();
+    private int stamp;
+    private int nodesExpanded;
+
+    @Override
+    public int[] findPath(Lexicon lexicon, int start, int target) {
+        WordGraph graph = lexicon.graph();
+        // Precondition: both words are vertices of the graph
+        assert start >= 0 && start < graph.size() : "Start must be a word id";
+        assert target >= 0 && target < graph.size() : "Target must be a word id";
+
+        // Scratch arrays are reused between searches; a new stamp marks everything unvisited
+        if (forward.queue == null || forward.queue.length != graph.size()) {
+            forward.ensureCapacity(graph.size());
+            backward.ensureCapacity(graph.size());
+            stamp = 0;
+        }
+        stamp++;
+        nodesExpanded = 0;
+
+        if (start == target) {
+            return new int[]{start};
+        }
+
+        forward.seed(start, stamp);
+        backward.seed(target, stamp);
+
+        // Either frontier running dry means the two words are in different components
+        while (forward.layerSize() > 0 && backward.layerSize() > 0) {
+            Frontier expanding = forward.layerSize() <= backward.layerSize() ? forward : backward;
+            Frontier other = expanding == forward ? backward : forward;
+
+            // Expand the whole layer so the best meeting edge in it is found, not just the first
+            int bestLength = Integer.MAX_VALUE;
+            int bestFrom = -1;
+            int bestTo = -1;
+            int layerEnd = expanding.tail;
+
+            while (expanding.head < layerEnd) {
+                int current = expanding.queue[expanding.head++];
+                nodesExpanded++;
+                PathFinder.checkCancelled(nodesExpanded);
+
+                for (int edge = graph.edgeStart(current), end = graph.edgeEnd(current); edge < end; edge++) {
+                    int neighbour = graph.target(edge);
+                    if (other.visited[neighbour] == stamp) {
+                        int length = expanding.depths[current] + 1 + other.depths[neighbour];
+                        if (length < bestLength) {
+                            bestLength = length;
+                            bestFrom = current;
+                            bestTo = neighbour;
+                        }
+                    } else if (expanding.visited[neighbour] != stamp) {
+                        expanding.visited[neighbour] = stamp;
+                        expanding.parents[neighbour] = current;
+                        expanding.depths[neighbour] = expanding.depths[current] + 1;
+                        expanding.queue[expanding.tail++] = neighbour;
+                    }
+                }
+            }
+
+            if (bestFrom >= 0) {
+                return expanding == forward ? join(bestFrom, bestTo) : join(bestTo, bestFrom);
+            }
+        }
+
+        // No path found
+        return NO_PATH;
+    }
+
+    // Builds start .. meetForward followed by meetBackward .. target
+    private int[] join(int meetForward, int meetBackward) {
+        int[] path = new int[forward.depths[meetForward] + backward.depths[meetBackward] + 2];
+
+        int index = forward.depths[meetForward];
+        for (int id = meetForward; id >= 0; id = forward.parents[id]) {
+            path[index--] = id;
+        }
+        index = forward.depths[meetForward] + 1;
+        for (int id = meetBackward; id >= 0; id = backward.parents[id]) {
+            path[index++] = id;
+        }
+
+        // Postcondition: the path runs from the start to the target
+        assert path[0] == forward.queue[0] : "Path should start with start word";
+        assert path[path.length - 1] == backward.queue[0] : "Path should end with target word";
+        return path;
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String getName() {
+        return "bidirectional";
+    }
+}
@@ -0,0 +1,37 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+// Flight Recorder event for updating or painting the game board on the event dispatch thread
+// The threshold is one frame at 60 fps, so a recording shows exactly the redraws that dropped a frame
+@Name("weaver.BoardRedraw")
+@Label("Board Redraw")
+@Category({"Weaver", "UI"})
+@Description("The game board was updated from the model or painted")
+@Threshold("16 ms")
+public final class BoardRedrawEvent extends Event {
+    @Label("Phase")
+    @Description("update for loading the model into the board, paint for drawing it")
+    String phase;
+
+    @Label("Attempts")
+    @Description("Attempts on the board")
+    int attempts;
+
+    @Label("Rows Rendered")
+    @Description("Attempt rows loaded or painted by this redraw")
+    int rowsRendered;
+
+    // Fills in and commits the event if recording is on and the redraw was slower than the threshold
+    void report(String phase, int attempts, int rowsRendered) {
+        if (shouldCommit()) {
+            this.phase = phase;
+            this.attempts = attempts;
+            this.rowsRendered = rowsRendered;
+            commit();
+        }
+    }
+}
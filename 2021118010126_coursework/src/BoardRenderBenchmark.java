@@ -0,0 +1,108 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Headless redraw benchmark for the attempts board at 10, 100 and 1,000 attempts
+// Each measurement adds one attempt, lays the board out and paints the visible viewport into an image,
+// as the scroll pane would; it compares the painted AttemptsBoard with rebuilding a component row per attempt
+// Usage: java BoardRenderBenchmark [dictionary.txt] [samples]
+public class BoardRenderBenchmark {
+    private static final int[] HISTORY_SIZES = {10, 100, 1000};
+    private static final int VIEW_WIDTH = 400;
+    private static final int VIEW_HEIGHT = 600;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        String path = args.length > 0 ? args[0] : "dictionary.txt";
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        Lexicon lexicon = LexiconCache.shared(path);
+        SplittableRandom random = new SplittableRandom(1);
+        int target = lexicon.code(random.nextInt(lexicon.size()));
+        int targetMask = Feedback.letterMask(target);
+        int total = HISTORY_SIZES[HISTORY_SIZES.length - 1] + samples;
+        String[] words = new String[total];
+        int[] feedback = new int[total];
+        for (int i = 0; i < total; i++) {
+            int code = lexicon.code(random.nextInt(lexicon.size()));
+            words[i] = Lexicon.decode(code);
+            feedback[i] = Feedback.compute(code, target, targetMask);
+        }
+
+        System.out.printf("%-10s %20s %20s%n", "attempts", "painted board (us)", "full rebuild (us)");
+        SwingUtilities.invokeAndWait(() -> {
+            BufferedImage image = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+            // Warm up both paths before timing
+            measure(new AttemptsBoard(), false, words, feedback, 100, samples, image);
+            measure(new JPanel(), true, words, feedback, 100, samples, image);
+
+            for (int history : HISTORY_SIZES) {
+                long painted = measure(new AttemptsBoard(), false, words, feedback, history, samples, image);
+                long rebuild = measure(new JPanel(), true, words, feedback, history, samples, image);
+                System.out.printf("%-10d %20.1f %20.1f%n", history, painted / 1e3, rebuild / 1e3);
+            }
+        });
+    }
+
+    // Fills a board with the given history, then returns the median time to add one more attempt and redraw
+    private static long measure(JComponent board, boolean rebuild, String[] words, int[] feedback,
+                                int history, int samples, BufferedImage image) {
+        if (rebuild) {
+            board.setLayout(new BoxLayout(board, BoxLayout.Y_AXIS));
+        }
+        JViewport viewport = new JViewport();
+        viewport.setView(board);
+        viewport.setSize(VIEW_WIDTH, VIEW_HEIGHT);
+        for (int i = 0; i < history; i++) {
+            append(board, rebuild, words, feedback, i);
+        }
+
+        long[] times = new long[samples];
+        Graphics2D graphics = image.createGraphics();
+        for (int sample = 0; sample < samples; sample++) {
+            long begin = System.nanoTime();
+            append(board, rebuild, words, feedback, history + sample);
+            viewport.validate();
+            // Keep the newest row in view, as the game does
+            Dimension size = board.getPreferredSize();
+            viewport.setViewPosition(new Point(0, Math.max(0, size.height - VIEW_HEIGHT)));
+            viewport.paint(graphics);
+            times[sample] = System.nanoTime() - begin;
+        }
+        graphics.dispose();
+
+        Arrays.sort(times);
+        return times[samples / 2];
+    }
+
+    private static void append(JComponent board, boolean rebuild, String[] words, int[] feedback, int index) {
+        if (!rebuild) {
+            ((AttemptsBoard) board).appendAttempt(words[index], feedback[index]);
+            return;
+        }
+
+        // What the view used to do on every update: recreate every row with new fonts and colours
+        board.removeAll();
+        for (int i = 0; i <= index; i++) {
+            JPanel row = new JPanel(new GridLayout(1, 4, 5, 5));
+            row.setMaximumSize(new Dimension(Integer.MAX_VALUE, 70));
+            for (int j = 0; j < 4; j++) {
+                JLabel label = new JLabel(String.valueOf(words[i].charAt(j)).toUpperCase());
+                label.setOpaque(true);
+                label.setHorizontalAlignment(SwingConstants.CENTER);
+                label.setFont(new Font("Arial", Font.BOLD, 24));
+                label.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+                label.setPreferredSize(new Dimension(60, 60));
+                int state = Feedback.stateAt(feedback[i], j);
+                label.setBackground(state == Feedback.CORRECT ? new Color(76, 175, 80)
+                        : state == Feedback.PRESENT ? new Color(255, 235, 59) : new Color(158, 158, 158));
+                row.add(label);
+            }
+            board.add(row);
+            board.add(Box.createVerticalStrut(5));
+        }
+        board.revalidate();
+    }
+}
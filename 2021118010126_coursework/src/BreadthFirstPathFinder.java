@@ -0,0 +1,77 @@
+// One-sided breadth-first search from the start word over a WordGraph
+// Search state is kept between calls, so an instance must not be shared between threads
+public class BreadthFirstPathFinder implements PathFinder {
+    private static final int[] NO_PATH = new int[0];
+
+    private int[] queue;
+    private int[] parents;
+    private int[] visited;  // Holds the stamp of the search that last reached each vertex
+    private int stamp;
+    private int nodesExpanded;
+
+    @Override
+    public int[] findPath(Lexicon lexicon, int start, int target) {
+        WordGraph graph = lexicon.graph();
+        // Precondition: both words are vertices of the graph
+        assert start >= 0 && start < graph.size() : "Start must be a word id";
+        assert target >= 0 && target < graph.size() : "Target must be a word id";
+
+        // Scratch arrays are reused between searches; a new stamp marks everything unvisited
+        if (queue == null || queue.length != graph.size()) {
+            queue = new int[graph.size()];
+            parents = new int[graph.size()];
+            visited = new int[graph.size()];
+            stamp = 0;
+        }
+        stamp++;
+        nodesExpanded = 0;
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start] = stamp;
+        parents[start] = -1;
+
+        while (head < tail) {
+            int current = queue[head++];
+            nodesExpanded++;
+            PathFinder.checkCancelled(nodesExpanded);
+
+            // If we've reached the target, reconstruct the path
+            if (current == target) {
+                int length = 0;
+                for (int id = target; id >= 0; id = parents[id]) {
+                    length++;
+                }
+                int[] path = new int[length];
+                for (int id = target; id >= 0; id = parents[id]) {
+                    path[--length] = id;
+                }
+                return path;
+            }
+
+            // Queue every unvisited neighbour
+            for (int edge = graph.edgeStart(current), end = graph.edgeEnd(current); edge < end; edge++) {
+                int neighbour = graph.target(edge);
+                if (visited[neighbour] != stamp) {
+                    visited[neighbour] = stamp;
+                    parents[neighbour] = current;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+
+        // No path found
+        return NO_PATH;
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String getName() {
+        return "bfs";
+    }
+}
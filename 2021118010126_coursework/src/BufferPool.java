@@ -0,0 +1,40 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+// Free list of equally sized direct ByteBuffers owned by one thread, so it needs no locking
+// Connections borrow a buffer only while they have unread input or unsent output; an idle connection
+// holds none, which keeps memory flat however many clients are connected
+final class BufferPool {
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+    private final int bufferSize;
+    private final int maxRetained;
+    private int allocated;
+
+    BufferPool(int bufferSize, int maxRetained) {
+        this.bufferSize = bufferSize;
+        this.maxRetained = maxRetained;
+    }
+
+    // Returns an empty buffer, allocating one only if none is free
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.pollFirst();
+        if (buffer == null) {
+            allocated++;
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        return buffer;
+    }
+
+    // Gives a buffer back; beyond maxRetained free buffers it is left to the garbage collector
+    void release(ByteBuffer buffer) {
+        if (free.size() < maxRetained) {
+            buffer.clear();
+            free.addFirst(buffer);
+        }
+    }
+
+    // Returns the number of buffers allocated over the pool's lifetime
+    int allocated() {
+        return allocated;
+    }
+}
@@ -1,13 +1,28 @@
+import javax.management.JMException;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Scanner;
 
 public class CLI {
     private IModel model;
+    private ModelStats stats;
+    private GameJournal journal;
     private Scanner scanner;
 
     // Constructor - sets up the game environment with default settings
     public CLI() {
-        model = new Model();
+        // Time every model operation; the figures are printed by 'stats' and published over JMX
+        Model gameModel = new Model();
+        InstrumentedModel instrumented = new InstrumentedModel(gameModel);
+        model = instrumented;
+        stats = instrumented.getStats();
+        try {
+            stats.register("cli");
+        } catch (JMException e) {
+            System.err.println("Error registering model stats: " + e.getMessage());
+        }
         scanner = new Scanner(System.in);
 
         // Set default game configuration flags
@@ -15,6 +30,12 @@ public class CLI {
         model.setShowPath(false);
         model.setRandomWords(false);
 
+        // Pick up an unfinished game from the journal, and journal this session's games
+        journal = GameJournal.resume(Paths.get(GameJournal.JOURNAL_FILE), gameModel);
+        if (journal != null && journal.getRecoveredGame() != null && !journal.getRecoveredGame().isFinished()) {
+            System.out.println("Resuming your last game.");
+        }
+
         // Launch the game
         playGame();
     }
@@ -25,6 +46,10 @@ public class CLI {
         System.out.println("Change one letter at a time to transform the start word into the target word.");
         System.out.println("All intermediate steps must be valid words.");
         System.out.println("Type 'exit' to quit, 'restart' to reset the game, or 'new' for a new game.");
+        System.out.println("Type 'hint' for the next optimal word from your current position.");
+        System.out.println("Type 'new <moves>' for a new game that takes exactly that many moves.");
+        System.out.println("Type 'daily' for today's puzzle.");
+        System.out.println("Type 'stats' for call counts and timings of the game's operations.");
         System.out.println();
 
         printGameState();
@@ -49,6 +74,21 @@ public class CLI {
                 System.out.println("New game started.");
                 printGameState();
                 continue;
+            } else if (input.startsWith("new ")) {
+                // Start a game with an exact optimal length, e.g. "new 5"
+                startGameWithDifficulty(input.substring(4).trim());
+                continue;
+            } else if (input.equals("daily")) {
+                model.newGame(LocalDate.now());
+                System.out.println("Today's puzzle started.");
+                printGameState();
+                continue;
+            } else if (input.equals("hint")) {
+                showHint();
+                continue;
+            } else if (input.equals("stats")) {
+                System.out.print(stats.format());
+                continue;
             } else if (input.startsWith("set ")) {
                 // Handle game configuration commands
                 handleFlagCommand(input.substring(4));
@@ -93,6 +133,19 @@ public class CLI {
         }
 
         scanner.close();
+        closeJournal();
+    }
+
+    // Writes out the journal's last events before exiting
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Error closing game journal: " + e.getMessage());
+        }
     }
 
     private void handleFlagCommand(String command) {
@@ -131,10 +184,19 @@ public class CLI {
                     printGameState();
                 }
                 break;
+            case "finder":
+                // Select the path-finding algorithm
+                try {
+                    model.setPathFinder(value);
+                    System.out.println("Path finder: " + model.getPathFinder());
+                } catch (IllegalArgumentException e) {
+                    System.out.println(e.getMessage());
+                }
+                break;
             default:
                 // Handle unknown flag
                 System.out.println("Unknown flag: " + flag);
-                System.out.println("Available flags: errors, path, random");
+                System.out.println("Available flags: errors, path, random, finder");
                 break;
         }
     }
@@ -157,13 +219,13 @@ public class CLI {
                 System.out.print((i + 1) + ". " + attempt.toUpperCase() + " ");
 
                 // Indicate correctness of each letter with color codes (G=correct, Y=wrong position, X=not in target)
-                int[] feedback = model.getFeedback(attempt);
+                int feedback = model.getAttemptFeedback(i);
                 System.out.print("[");
                 for (int j = 0; j < 4; j++) {
-                    char c = attempt.charAt(j);
-                    if (feedback[j] == 1) {
+                    int state = Feedback.stateAt(feedback, j);
+                    if (state == Feedback.CORRECT) {
                         System.out.print("G"); // Green - correct position
-                    } else if (feedback[j] == 0) {
+                    } else if (state == Feedback.PRESENT) {
                         System.out.print("Y"); // Yellow - in word but wrong position
                     } else {
                         System.out.print("X"); // Grey - not in word
@@ -206,10 +268,48 @@ public class CLI {
                 System.out.println((i + 1) + ". " + path.get(i).toUpperCase());
             }
 
+            // Report how the path was found
+            PathStats pathStats = model.getLastPathStats();
+            if (pathStats != null) {
+                System.out.println("Search: " + pathStats);
+            }
+
             System.out.println("---------------------------");
         }
     }
 
+    private void startGameWithDifficulty(String moves) {
+        // Parse the requested optimal length and start a matching game
+        try {
+            model.newGame(Integer.parseInt(moves));
+            System.out.println("New game started (" + moves + " moves).");
+            printGameState();
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid command. Use 'new <moves>'");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private void showHint() {
+        // Suggest the next optimal word from the player's current position
+        String hint = model.getHint();
+
+        if (hint == null) {
+            System.out.println("No path found to " + model.getTargetWord().toUpperCase() + " from here");
+            return;
+        }
+
+        System.out.println("Hint: try " + hint.toUpperCase() + " (" + model.getDistanceToTarget() +
+                " moves to " + model.getTargetWord().toUpperCase() + ")");
+
+        StringBuilder remaining = new StringBuilder("Optimal remaining path:");
+        for (String word : model.getRemainingPath()) {
+            remaining.append(' ').append(word.toUpperCase());
+        }
+        System.out.println(remaining);
+    }
+
     // Program entry point
     public static void main(String[] args) {
         new CLI();
@@ -1,7 +1,6 @@
-import java.util.Observable;
-import java.util.Observer;
+import java.util.List;
 
-public class Controller implements Observer {
+public class Controller implements GameEventListener {
     private IModel model;
     private View view;
     private StringBuilder currentWord;
@@ -95,9 +94,14 @@ public class Controller implements Observer {
         view.setNewGameButtonEnabled(true);
     }
 
-    // Observer pattern implementation - responds to model changes
+    // Responds to model changes; flag changes do not affect the buttons
     @Override
-    public void update(Observable o, Object arg) {
-        updateButtonStates();
+    public void onGameEvents(List<GameEvent> events) {
+        for (GameEvent event : events) {
+            if (!(event instanceof GameEvent.FlagChanged)) {
+                updateButtonStates();
+                return;
+            }
+        }
     }
 }
\ No newline at end of file
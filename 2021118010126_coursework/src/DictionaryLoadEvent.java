@@ -0,0 +1,36 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+// Flight Recorder event for loading a text dictionary, through its snapshot or by parsing the text
+// Only loads slower than the threshold are recorded; lower it in the recording settings to see every load,
+// e.g. -XX:StartFlightRecording:weaver.DictionaryLoad#threshold=0ms
+@Name("weaver.DictionaryLoad")
+@Label("Dictionary Load")
+@Category({"Weaver", "Dictionary"})
+@Description("A dictionary was loaded from its snapshot or parsed from text")
+@Threshold("10 ms")
+public final class DictionaryLoadEvent extends Event {
+    @Label("Path")
+    String path;
+
+    @Label("Word Count")
+    int wordCount;
+
+    @Label("From Snapshot")
+    @Description("True if the memory-mapped snapshot was used, false if the text file was parsed")
+    boolean fromSnapshot;
+
+    // Fills in and commits the event if recording is on and the load was slower than the threshold
+    void report(String path, Lexicon lexicon, boolean fromSnapshot) {
+        if (shouldCommit()) {
+            this.path = path;
+            this.wordCount = lexicon.size();
+            this.fromSnapshot = fromSnapshot;
+            commit();
+        }
+    }
+}
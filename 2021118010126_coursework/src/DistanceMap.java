@@ -0,0 +1,82 @@
+import java.util.Arrays;
+
+// Shortest ladder distances from every word to one target word, with the next step towards it
+// Built by a single breadth-first search outward from the target; the word graph is undirected,
+// so the search tree's parent links point each word one step closer to the target
+// Immutable once built and safe to share between threads and sessions
+public final class DistanceMap {
+    public static final int UNREACHABLE = -1;
+
+    private final int target;
+    private final short[] distances;  // Moves from each word to the target, or UNREACHABLE
+    private final int[] next;         // Neighbour one move closer to the target, or -1
+
+    private DistanceMap(int target, short[] distances, int[] next) {
+        this.target = target;
+        this.distances = distances;
+        this.next = next;
+    }
+
+    // Runs the reverse breadth-first search from the target word
+    public static DistanceMap build(WordGraph graph, int target) {
+        // Precondition: the target is a vertex of the graph
+        assert target >= 0 && target < graph.size() : "Target must be a word id";
+
+        short[] distances = new short[graph.size()];
+        int[] next = new int[graph.size()];
+        Arrays.fill(distances, (short) UNREACHABLE);
+        Arrays.fill(next, -1);
+
+        int[] queue = new int[graph.size()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = target;
+        distances[target] = 0;
+
+        while (head < tail) {
+            int current = queue[head++];
+            short distance = (short) (distances[current] + 1);
+            for (int edge = graph.edgeStart(current), end = graph.edgeEnd(current); edge < end; edge++) {
+                int neighbour = graph.target(edge);
+                if (distances[neighbour] == UNREACHABLE) {
+                    distances[neighbour] = distance;
+                    next[neighbour] = current;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+
+        return new DistanceMap(target, distances, next);
+    }
+
+    // Returns the word id every distance is measured to
+    public int getTarget() {
+        return target;
+    }
+
+    // Returns the number of moves from a word to the target, or UNREACHABLE
+    public int distance(int id) {
+        return distances[id];
+    }
+
+    // Returns the word one optimal move closer to the target, or -1 at the target or if it is unreachable
+    public int next(int id) {
+        return next[id];
+    }
+
+    // Returns the ids of the words still to play from a word to the target, excluding the word itself
+    // The result is empty at the target or if the target is unreachable
+    public int[] remainingPath(int id) {
+        int length = Math.max(0, distances[id]);
+        int[] path = new int[length];
+        int current = id;
+        for (int i = 0; i < length; i++) {
+            current = next[current];
+            path[i] = current;
+        }
+
+        // Postcondition: a non-empty path ends at the target
+        assert length == 0 || path[length - 1] == target : "Remaining path should end with the target";
+        return path;
+    }
+}
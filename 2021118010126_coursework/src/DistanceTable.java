@@ -0,0 +1,264 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.CRC32;
+
+// Ladder distance between every pair of words as a byte matrix, answering distance(a, b) in O(1)
+// Rows are filled by one breadth-first search per word, run in parallel on a ForkJoinPool, and the
+// matrix is kept in a memory-mapped file next to the dictionary so it is generated only once
+//
+// File layout (big-endian):
+//   int  magic              "WDST"
+//   int  version
+//   int  word count
+//   int  lexicon checksum   CRC32 of the sorted word codes the table was built for
+//   byte[word count * word count]  distance from row word to column word, 255 if unreachable
+public final class DistanceTable {
+    public static final int UNREACHABLE = -1;
+
+    static final int MAGIC = 0x57445354;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private static final int UNREACHABLE_BYTE = 0xFF;
+    // Sources handled by one fork/join leaf task
+    private static final int ROWS_PER_TASK = 32;
+    // Largest word count whose matrix fits in one buffer
+    static final int MAX_WORDS = 46340;
+
+    private final ByteBuffer matrix;  // Header followed by the rows
+    private final int wordCount;
+
+    private DistanceTable(ByteBuffer matrix, int wordCount) {
+        this.matrix = matrix;
+        this.wordCount = wordCount;
+    }
+
+    // Returns the number of moves between two words, or UNREACHABLE
+    public int distance(int id1, int id2) {
+        int distance = matrix.get(HEADER_SIZE + id1 * wordCount + id2) & 0xFF;
+        return distance == UNREACHABLE_BYTE ? UNREACHABLE : distance;
+    }
+
+    // Returns the number of words in each row
+    public int size() {
+        return wordCount;
+    }
+
+    // Maps the table stored next to a dictionary, generating and writing it first if it is missing or stale
+    // Falls back to an in-memory table if the file cannot be written
+    static DistanceTable open(Path dictionary, Lexicon lexicon) {
+        Path file = LexiconSnapshot.siblingPath(dictionary, ".dist");
+        try {
+            DistanceTable table = map(file, lexicon);
+            if (table != null) {
+                return table;
+            }
+            return generate(lexicon, file, ForkJoinPool.getCommonPoolParallelism());
+        } catch (IOException e) {
+            System.err.println("Could not write distance table: " + e.getMessage());
+            return generate(lexicon, ForkJoinPool.getCommonPoolParallelism());
+        }
+    }
+
+    // Maps an existing table file; returns null if it is missing or was built for a different lexicon
+    static DistanceTable map(Path file, Lexicon lexicon) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int wordCount = lexicon.size();
+            if (channel.size() != HEADER_SIZE + (long) wordCount * wordCount) {
+                return null;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt(8) != wordCount || buffer.getInt(12) != lexiconChecksum(lexicon)) {
+                return null;
+            }
+            return new DistanceTable(buffer, wordCount);
+        }
+    }
+
+    // Builds the table on the heap
+    public static DistanceTable generate(Lexicon lexicon, int parallelism) {
+        checkSize(lexicon);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + lexicon.size() * lexicon.size());
+        fill(buffer, lexicon, parallelism);
+        return new DistanceTable(buffer, lexicon.size());
+    }
+
+    // Builds the table straight into a memory-mapped file, then atomically moves it into place
+    public static DistanceTable generate(Lexicon lexicon, Path file, int parallelism) throws IOException {
+        checkSize(lexicon);
+        long size = HEADER_SIZE + (long) lexicon.size() * lexicon.size();
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            fill(buffer, lexicon, parallelism);
+            buffer.force();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        // The mapping follows the file through the rename
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new DistanceTable(buffer, lexicon.size());
+    }
+
+    private static void checkSize(Lexicon lexicon) {
+        if (lexicon.size() > MAX_WORDS) {
+            throw new IllegalArgumentException("Too many words for a distance table: " + lexicon.size());
+        }
+    }
+
+    // Writes the header and runs one breadth-first search per row
+    private static void fill(ByteBuffer buffer, Lexicon lexicon, int parallelism) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, lexicon.size());
+        buffer.putInt(12, lexiconChecksum(lexicon));
+
+        // Every row walks the whole component, so copy the graph out of its buffers once
+        WordGraph graph = lexicon.graph();
+        int[] offsets = new int[graph.size() + 1];
+        int[] edges = new int[graph.edgeCount()];
+        graph.offsetTable().get(offsets);
+        graph.edgeTable().get(edges);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RowTask(buffer, offsets, edges, 0, lexicon.size()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Fills rows [from, to), splitting in half until a range is small enough to run directly
+    private static final class RowTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer buffer;
+        private final int[] offsets;
+        private final int[] edges;
+        private final int from;
+        private final int to;
+
+        RowTask(ByteBuffer buffer, int[] offsets, int[] edges, int from, int to) {
+            this.buffer = buffer;
+            this.offsets = offsets;
+            this.edges = edges;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowTask(buffer, offsets, edges, from, middle), new RowTask(buffer, offsets, edges, middle, to));
+                return;
+            }
+
+            // Scratch arrays are shared by every row in this leaf
+            int wordCount = offsets.length - 1;
+            int[] queue = new int[wordCount];
+            byte[] row = new byte[wordCount];
+            for (int source = from; source < to; source++) {
+                searchFrom(source, queue, row);
+                // Rows are disjoint, so absolute puts from different threads do not interfere
+                buffer.put(HEADER_SIZE + source * wordCount, row);
+            }
+        }
+
+        private void searchFrom(int source, int[] queue, byte[] row) {
+            Arrays.fill(row, (byte) UNREACHABLE_BYTE);
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = source;
+            row[source] = 0;
+
+            while (head < tail) {
+                int current = queue[head++];
+                int distance = (row[current] & 0xFF) + 1;
+                assert distance < UNREACHABLE_BYTE : "Distance does not fit in a byte";
+
+                for (int edge = offsets[current], end = offsets[current + 1]; edge < end; edge++) {
+                    int neighbour = edges[edge];
+                    if ((row[neighbour] & 0xFF) == UNREACHABLE_BYTE) {
+                        row[neighbour] = (byte) distance;
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+        }
+    }
+
+    // CRC32 of the lexicon's sorted codes, tying a table file to the words it was built for
+    static int lexiconChecksum(Lexicon lexicon) {
+        IntBuffer codes = lexicon.codeTable();
+        ByteBuffer bytes = ByteBuffer.allocate(codes.remaining() * 4);
+        bytes.asIntBuffer().put(codes);
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    // Offline generator: java DistanceTable [dictionary.txt] [parallelism]
+    // Runs at 1, 2, 4 ... cores up to the requested parallelism and reports time and memory at each step
+    public static void main(String[] args) throws IOException {
+        String textPath = args.length > 0 ? args[0] : "dictionary.txt";
+        int maxParallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        Lexicon lexicon = LexiconCache.shared(textPath);
+        Path file = LexiconSnapshot.siblingPath(Paths.get(textPath), ".dist");
+        System.out.println("Words: " + lexicon.size() + ", matrix: "
+                + (long) lexicon.size() * lexicon.size() / (1024 * 1024) + " MB, output: " + file);
+
+        // Warm up the search code before timing
+        generate(lexicon, maxParallelism);
+
+        // 1, 2, 4 ... and finally the requested parallelism itself
+        List<Integer> levels = new ArrayList<>();
+        for (int parallelism = 1; parallelism < maxParallelism; parallelism *= 2) {
+            levels.add(parallelism);
+        }
+        levels.add(maxParallelism);
+
+        Runtime runtime = Runtime.getRuntime();
+        long singleCore = 0;
+        for (int parallelism : levels) {
+            System.gc();
+            long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+            long begin = System.nanoTime();
+            generate(lexicon, file, parallelism);
+            long elapsed = System.nanoTime() - begin;
+            long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+            if (singleCore == 0) {
+                singleCore = elapsed;
+            }
+            System.out.printf("parallelism %2d: %8.1f ms, speedup %.2fx, heap delta %d KB%n",
+                    parallelism, elapsed / 1e6, (double) singleCore / elapsed, (heapAfter - heapBefore) / 1024);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+// Letter feedback for a guess packed into one int, two bits per position with position 0 lowest
+// Computed from word codes and a 26-bit mask of the target's letters, so it needs no allocation,
+// no indexOf scans and no strings; the Model stores one packed value with each attempt
+public final class Feedback {
+    // Per-position states; subtracting one gives the legacy int[] values (-1, 0, 1)
+    public static final int ABSENT = 0;    // Letter does not exist in target word (grey)
+    public static final int PRESENT = 1;   // Letter exists in target word but in wrong position (yellow)
+    public static final int CORRECT = 2;   // Correct letter in correct position (green)
+
+    private static final int BITS_PER_POSITION = 2;
+    private static final int STATE_MASK = (1 << BITS_PER_POSITION) - 1;
+
+    private Feedback() {
+    }
+
+    // Returns a mask with bit n set if letter n ('a' + n) appears anywhere in the word
+    public static int letterMask(int code) {
+        int mask = 0;
+        for (int i = 0; i < Lexicon.WORD_LENGTH; i++) {
+            mask |= 1 << Lexicon.letterAt(code, i);
+        }
+        return mask;
+    }
+
+    // Compares a guess with the target, given the target's precomputed letter mask
+    public static int compute(int guessCode, int targetCode, int targetMask) {
+        // Precondition: both words are valid codes
+        assert guessCode >= 0 && targetCode >= 0 : "Feedback needs two encoded words";
+
+        int packed = 0;
+        for (int i = 0; i < Lexicon.WORD_LENGTH; i++) {
+            int letter = Lexicon.letterAt(guessCode, i);
+            int state;
+            if (letter == Lexicon.letterAt(targetCode, i)) {
+                state = CORRECT;
+            } else if ((targetMask & (1 << letter)) != 0) {
+                state = PRESENT;
+            } else {
+                state = ABSENT;
+            }
+            packed |= state << (BITS_PER_POSITION * i);
+        }
+        return packed;
+    }
+
+    // Compares a guess with the target character by character, for a guess that is not a word code, such as
+    // one with digits or punctuation; characters that are not letters are never in the target
+    public static int compare(CharSequence guess, String target) {
+        // Precondition: both words have four characters
+        assert guess.length() == Lexicon.WORD_LENGTH && target.length() == Lexicon.WORD_LENGTH : "Feedback needs two 4-character words";
+
+        int packed = 0;
+        for (int i = 0; i < Lexicon.WORD_LENGTH; i++) {
+            char letter = guess.charAt(i);
+            int state;
+            if (letter == target.charAt(i)) {
+                state = CORRECT;
+            } else if (target.indexOf(letter) >= 0) {
+                state = PRESENT;
+            } else {
+                state = ABSENT;
+            }
+            packed |= state << (BITS_PER_POSITION * i);
+        }
+        return packed;
+    }
+
+    // Returns the state (ABSENT, PRESENT or CORRECT) of one position
+    public static int stateAt(int packed, int position) {
+        return (packed >>> (BITS_PER_POSITION * position)) & STATE_MASK;
+    }
+
+    // Checks if every position is CORRECT
+    public static boolean isSolved(int packed) {
+        for (int i = 0; i < Lexicon.WORD_LENGTH; i++) {
+            if (stateAt(packed, i) != CORRECT) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Unpacks into the legacy array form (1=correct position, 0=wrong position, -1=not in word)
+    public static int[] toArray(int packed) {
+        int[] feedback = new int[Lexicon.WORD_LENGTH];
+        for (int i = 0; i < feedback.length; i++) {
+            feedback[i] = stateAt(packed, i) - 1;
+        }
+        return feedback;
+    }
+}
@@ -0,0 +1,33 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// Flight Recorder event for letter feedback computed on request
+// Feedback is a few bit operations, so anything over the threshold points at the JVM (a safepoint or
+// a page fault) rather than the game; the stack trace is left out to keep recordings small
+@Name("weaver.Feedback")
+@Label("Feedback")
+@Category({"Weaver", "Game"})
+@Description("Letter feedback was computed for a word against the target")
+@Threshold("100 us")
+@StackTrace(false)
+public final class FeedbackEvent extends Event {
+    @Label("Word")
+    String word;
+
+    @Label("Target Word")
+    String targetWord;
+
+    // Fills in and commits the event if recording is on and the computation was slower than the threshold
+    void report(String word, String targetWord) {
+        if (shouldCommit()) {
+            this.word = word;
+            this.targetWord = targetWord;
+            commit();
+        }
+    }
+}
@@ -1,3 +1,7 @@
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class GUIMain {
     public static void main(String[] args) {
         // Initialize the Model-View-Controller components
@@ -5,9 +9,10 @@ public class GUIMain {
         View view = new View(model);
         Controller controller = new Controller(model, view);
 
-        // Connect components using Observer pattern
-        model.addObserver(view);
-        model.addObserver(controller);
+        // Connect components through the model's event bus, delivering coalesced batches on the Swing event thread
+        model.getEventBus().setDispatcher(SwingUtilities::invokeLater);
+        model.getEventBus().addListener(view);
+        model.getEventBus().addListener(controller);
         view.setController(controller);
 
         // Configure initial game preferences
@@ -15,6 +20,18 @@ public class GUIMain {
         model.setShowPath(false);
         model.setRandomWords(false);
 
+        // Pick up an unfinished game from the journal, and flush the journal when the window closes the JVM
+        GameJournal journal = GameJournal.resume(Paths.get(GameJournal.JOURNAL_FILE), model);
+        if (journal != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing game journal: " + e.getMessage());
+                }
+            }));
+        }
+
         // Initialize UI element states
         controller.updateButtonStates();
     }
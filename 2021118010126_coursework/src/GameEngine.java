@@ -0,0 +1,160 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hosts many concurrent GameSessions over one shared, read-only Lexicon
+// The lexicon and its derived tables are built once and shared by every session; each session plays
+// its game on a Model of its own over that lexicon, which costs the model's attempt list and flags
+// Sessions are registered in a ConcurrentHashMap and each is its own lock stripe, so any thread can
+// create, play, reset or close any session and operations on different sessions never contend
+public final class GameEngine {
+    private final Lexicon lexicon;
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final boolean tableHints;  // Whether sessions' hints scan the all-pairs table
+
+    public GameEngine(Lexicon lexicon) {
+        // Precondition: two words are connected, so random games can be started
+        assert lexicon.components().pairableWordCount() > 0 : "Lexicon has no solvable games";
+
+        this.lexicon = lexicon;
+        // Sessions' hints scan the all-pairs table rather than each new target building a distance map
+        // (see Model.setTableHints); it is loaded up front so the first session does not wait for it
+        this.tableHints = lexicon.size() <= DistanceTable.MAX_WORDS;
+        if (tableHints) {
+            lexicon.distances();
+        }
+    }
+
+    public Lexicon getLexicon() {
+        return lexicon;
+    }
+
+    // Opens a session with a random solvable game
+    public GameSession createSession() {
+        Model model = new Model(lexicon);
+        model.setTableHints(tableHints);
+        model.setRandomWords(true);
+        return register(model);
+    }
+
+    // Opens a session between two given words
+    // Throws IllegalArgumentException if either word is not in the dictionary or they are the same
+    public GameSession createSession(String startWord, String targetWord) {
+        checkWords(lexicon, startWord, targetWord);
+        Model model = new Model(lexicon);
+        model.setTableHints(tableHints);
+        model.restoreGame(startWord.toLowerCase(), targetWord.toLowerCase(), Collections.emptyList());
+        return register(model);
+    }
+
+    // Opens a session with a game whose optimal solution takes exactly the given number of moves
+    // Throws IllegalArgumentException if no two words are that far apart
+    public GameSession createSession(int difficulty) {
+        Model model = new Model(lexicon);
+        model.setTableHints(tableHints);
+        model.newGame(difficulty);
+        return register(model);
+    }
+
+    private GameSession register(Model model) {
+        GameSession session = new GameSession(nextId.getAndIncrement(), lexicon, model);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    // Returns an open session, or null if there is none with that id
+    public GameSession getSession(long id) {
+        return sessions.get(id);
+    }
+
+    // Closes a session; returns false if it was not open
+    public boolean closeSession(long id) {
+        return sessions.remove(id) != null;
+    }
+
+    // Returns the number of open sessions
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    // Checks that two words can be a game's start and target
+    // Throws IllegalArgumentException if either word is not in the dictionary or they are the same
+    static void checkWords(Lexicon lexicon, String startWord, String targetWord) {
+        int start = Lexicon.encode(startWord);
+        int target = Lexicon.encode(targetWord);
+        if (!lexicon.containsCode(start) || !lexicon.containsCode(target)) {
+            throw new IllegalArgumentException("Not in the dictionary: " + startWord + " or " + targetWord);
+        }
+        if (start == target) {
+            throw new IllegalArgumentException("Start and target words must be different");
+        }
+    }
+
+    // Throughput benchmark: java GameEngine [dictionary.txt] [sessions] [max threads]
+    // Every thread opens its share of the sessions and plays each one to the target by hints,
+    // at 1, 2, 4 ... threads up to the maximum
+    public static void main(String[] args) throws Exception {
+        String path = args.length > 0 ? args[0] : "dictionary.txt";
+        int sessionCount = args.length > 1 ? Integer.parseInt(args[1]) : 50000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Lexicon lexicon = LexiconCache.shared(path);
+        List<Integer> levels = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            levels.add(threads);
+        }
+        levels.add(maxThreads);
+
+        // Warm up once at full parallelism
+        play(new GameEngine(lexicon), sessionCount, maxThreads);
+
+        long singleThread = 0;
+        for (int threads : levels) {
+            GameEngine engine = new GameEngine(lexicon);
+            long begin = System.nanoTime();
+            long moves = play(engine, sessionCount, threads);
+            long elapsed = System.nanoTime() - begin;
+
+            if (singleThread == 0) {
+                singleThread = elapsed;
+            }
+            System.out.printf("threads %2d: %d sessions, %d moves in %8.1f ms, %,.0f moves/s, speedup %.2fx%n",
+                    threads, engine.sessionCount(), moves, elapsed / 1e6, moves / (elapsed / 1e9),
+                    (double) singleThread / elapsed);
+        }
+    }
+
+    private static long play(GameEngine engine, int sessionCount, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int share = sessionCount / threads + (t < sessionCount % threads ? 1 : 0);
+                results.add(pool.submit(() -> {
+                    long moves = 0;
+                    for (int i = 0; i < share; i++) {
+                        GameSession session = engine.createSession();
+                        while (!session.getState().hasWon() && session.submitWord(session.getHint())) {
+                            moves++;
+                        }
+                    }
+                    return moves;
+                }));
+            }
+
+            long moves = 0;
+            for (Future<Long> result : results) {
+                moves += result.get();
+            }
+            return moves;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class GameEngineTest {
+
+    private GameEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new GameEngine(LexiconCache.shared("dictionary.txt"));
+    }
+
+    /**
+     * Scenario 1: Test one session's game rules
+     *
+     * This test verifies:
+     * 1. invalid words and words more than one letter away are rejected
+     * 2. playing the hints wins the game, after which no more words are accepted
+     * 3. reset keeps the words, and earlier snapshots are unaffected by later moves
+     * 4. sessions can be looked up and closed
+     */
+    @Test
+    public void testSessionRules() {
+        GameSession session = engine.createSession("sale", "opal");
+        assertSame(session, engine.getSession(session.getId()));
+
+        assertFalse(session.submitWord("xxxx"));
+        assertFalse(session.submitWord("opal"));
+        assertFalse(session.submitWord("toolong"));
+        GameState empty = session.getState();
+
+        while (!session.getState().hasWon()) {
+            assertTrue(session.submitWord(session.getHint()));
+        }
+        GameState won = session.getState();
+        assertEquals("opal", won.attempt(won.getAttemptCount() - 1));
+        assertTrue(Feedback.isSolved(won.feedback(won.getAttemptCount() - 1)));
+        assertFalse(session.submitWord(won.attempt(won.getAttemptCount() - 2)));
+        assertEquals(0, empty.getAttemptCount());
+
+        session.resetGame();
+        assertEquals(0, session.getState().getAttemptCount());
+        assertEquals("sale", session.getState().getStartWord());
+        assertEquals("opal", session.getState().getTargetWord());
+
+        session.newGame(6);
+        assertEquals(6, engine.getLexicon().distances().distance(
+                engine.getLexicon().idOf(session.getState().getStartCode()),
+                engine.getLexicon().idOf(session.getState().getTargetCode())));
+
+        assertTrue(engine.closeSession(session.getId()));
+        assertFalse(engine.closeSession(session.getId()));
+        assertNull(engine.getSession(session.getId()));
+    }
+
+    /**
+     * Scenario 2: Test many sessions played concurrently
+     *
+     * This test verifies:
+     * 1. sessions created and played from several threads all reach their targets
+     * 2. every session ends with an optimal number of moves and its own words
+     * 3. threads racing on one session never leave it in an inconsistent state
+     */
+    @Test
+    public void testConcurrentSessions() throws Exception {
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<GameSession>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    List<GameSession> played = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        GameSession session = engine.createSession();
+                        while (!session.getState().hasWon()) {
+                            assertTrue(session.submitWord(session.getHint()));
+                        }
+                        played.add(session);
+                    }
+                    return played;
+                }));
+            }
+
+            Lexicon lexicon = engine.getLexicon();
+            for (Future<List<GameSession>> result : results) {
+                for (GameSession session : result.get()) {
+                    GameState state = session.getState();
+                    int start = lexicon.idOf(state.getStartCode());
+                    int target = lexicon.idOf(state.getTargetCode());
+                    assertEquals(lexicon.distances().distance(start, target), state.getAttemptCount());
+                }
+            }
+            assertEquals(threads * perThread, engine.sessionCount());
+
+            // Every thread tries to play its own ladder on the same session at once
+            GameSession shared = engine.createSession("sale", "opal");
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<?>> racers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                racers.add(pool.submit(() -> {
+                    go.await();
+                    for (int i = 0; i < 50; i++) {
+                        String hint = shared.getHint();
+                        if (hint == null) {
+                            break;
+                        }
+                        shared.submitWord(hint);
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> racer : racers) {
+                racer.get();
+            }
+
+            GameState state = shared.getState();
+            assertTrue(state.hasWon());
+            int previous = state.getStartCode();
+            for (int i = 0; i < state.getAttemptCount(); i++) {
+                assertEquals(1, Lexicon.hammingDistance(previous, state.attemptCode(i)));
+                previous = state.attemptCode(i);
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Scenario 3: Test that sessions and the Model play by the same rules
+     *
+     * This test verifies:
+     * 1. the same moves, valid or not, are accepted or rejected alike by a session and a Model
+     * 2. both give the same feedback for every attempt and agree on when the game is won
+     * 3. both reset to the same empty game
+     */
+    @Test
+    public void testSessionsFollowModelRules() {
+        Model model = new Model(engine.getLexicon());
+        GameSession session = engine.createSession("sale", "opal");
+        List<String> ladder = model.findPath();
+        SplittableRandom random = new SplittableRandom(7);
+
+        List<String> moves = new ArrayList<>();
+        moves.add("xxxx");
+        moves.add("opal");
+        moves.add(ladder.get(2));
+        moves.add("PALE");
+        moves.add("pale");
+        moves.add("sale");
+        for (int i = 0; i < 200; i++) {
+            // One-letter changes of the ladder's words, most of them not words or not moves from here
+            char[] letters = ladder.get(random.nextInt(ladder.size())).toCharArray();
+            letters[random.nextInt(letters.length)] = (char) ('a' + random.nextInt(26));
+            moves.add(new String(letters));
+        }
+        moves.addAll(ladder.subList(1, ladder.size()));
+
+        for (String word : moves) {
+            assertEquals("Move " + word, model.submitWord(word), session.submitWord(word));
+            GameState state = session.getState();
+            assertEquals(model.getCurrentAttempt(), state.getAttemptCount());
+            for (int i = 0; i < state.getAttemptCount(); i++) {
+                assertEquals(model.getAttempts().get(i), state.attempt(i));
+                assertEquals(model.getAttemptFeedback(i), state.feedback(i));
+            }
+            assertEquals(model.hasWon(), state.hasWon());
+            assertEquals(model.getHint(), session.getHint());
+        }
+        assertTrue(model.hasWon());
+
+        model.resetGame();
+        session.resetGame();
+        assertEquals(0, session.getState().getAttemptCount());
+        assertEquals(model.getStartWord(), session.getState().getStartWord());
+        assertEquals(model.getTargetWord(), session.getState().getTargetWord());
+    }
+
+    /**
+     * Scenario 4: Test that a won session takes no more moves
+     *
+     * This test verifies:
+     * 1. a session refuses a valid move once its game is won, while a Model leaves that to its front end
+     * 2. the refused move leaves the session's game unchanged
+     * 3. after a reset the same move is accepted again
+     */
+    @Test
+    public void testWonSessionTakesNoMoves() {
+        Model model = new Model(engine.getLexicon());
+        GameSession session = engine.createSession("sale", "opal");
+        List<String> ladder = model.findPath();
+        for (String word : ladder.subList(1, ladder.size())) {
+            assertTrue(model.submitWord(word));
+            assertTrue(session.submitWord(word));
+        }
+        assertTrue(session.getState().hasWon());
+
+        // Stepping back off the target is a valid move by the Model's rules
+        String back = ladder.get(ladder.size() - 2);
+        assertTrue(model.submitWord(back));
+        GameState won = session.getState();
+        assertFalse(session.submitWord(back));
+        assertSame(won, session.getState());
+
+        session.resetGame();
+        assertTrue(session.submitWord(ladder.get(1)));
+        assertEquals(1, session.getState().getAttemptCount());
+    }
+}
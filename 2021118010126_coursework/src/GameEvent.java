@@ -0,0 +1,116 @@
+// Something that changed in a game, published by the Model on its GameEventBus
+// Each event carries what changed, so listeners can update just that part instead of re-reading everything
+public abstract class GameEvent {
+    // Game options that can be switched on and off
+    public enum Flag {
+        SHOW_ERROR_MESSAGES,
+        SHOW_PATH,
+        RANDOM_WORDS
+    }
+
+    private GameEvent() {
+    }
+
+    // Checks if this event replaces the whole board, making earlier board events redundant
+    boolean replacesBoard() {
+        return false;
+    }
+
+    // A valid word was added to the attempts
+    public static final class AttemptAdded extends GameEvent {
+        private final int index;
+        private final String word;
+        private final int feedback;
+
+        public AttemptAdded(int index, String word, int feedback) {
+            this.index = index;
+            this.word = word;
+            this.feedback = feedback;
+        }
+
+        // Returns the position of the attempt, starting at 0
+        public int getIndex() {
+            return index;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        // Returns the packed Feedback of the attempt
+        public int getFeedback() {
+            return feedback;
+        }
+
+        @Override
+        public String toString() {
+            return "AttemptAdded(" + index + ", " + word + ")";
+        }
+    }
+
+    // The attempts were cleared, keeping the same words
+    public static final class GameReset extends GameEvent {
+        @Override
+        boolean replacesBoard() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "GameReset";
+        }
+    }
+
+    // A new game started with new start and target words
+    public static final class GameStarted extends GameEvent {
+        private final String startWord;
+        private final String targetWord;
+
+        public GameStarted(String startWord, String targetWord) {
+            this.startWord = startWord;
+            this.targetWord = targetWord;
+        }
+
+        public String getStartWord() {
+            return startWord;
+        }
+
+        public String getTargetWord() {
+            return targetWord;
+        }
+
+        @Override
+        boolean replacesBoard() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "GameStarted(" + startWord + ", " + targetWord + ")";
+        }
+    }
+
+    // A game option was set
+    public static final class FlagChanged extends GameEvent {
+        private final Flag flag;
+        private final boolean value;
+
+        public FlagChanged(Flag flag, boolean value) {
+            this.flag = flag;
+            this.value = value;
+        }
+
+        public Flag getFlag() {
+            return flag;
+        }
+
+        public boolean getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "FlagChanged(" + flag + ", " + value + ")";
+        }
+    }
+}
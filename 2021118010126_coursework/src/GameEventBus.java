@@ -0,0 +1,98 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+// Typed replacement for java.util.Observable: the Model publishes GameEvents and listeners get them in order
+// By default events are delivered synchronously, one per call, on the publishing thread. Given a dispatcher
+// such as SwingUtilities::invokeLater, the bus instead queues events and schedules a single delivery; a burst
+// published before that delivery runs (say, setting three flags and starting a game) reaches listeners as
+// one coalesced batch on the dispatcher's thread, once per frame or tick
+public final class GameEventBus {
+    private final List<GameEventListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Executor dispatcher;
+
+    // Events waiting for the scheduled delivery; guarded by this
+    private List<GameEvent> pending = new ArrayList<>();
+    private boolean scheduled;
+
+    public void addListener(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GameEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Switches to coalesced delivery on the given executor, or back to synchronous delivery with null
+    public void setDispatcher(Executor dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    public void publish(GameEvent event) {
+        Executor executor = dispatcher;
+        if (executor == null) {
+            deliver(Collections.singletonList(event));
+            return;
+        }
+
+        synchronized (this) {
+            pending.add(event);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        executor.execute(this::flush);
+    }
+
+    // Delivers everything queued since the last delivery
+    private void flush() {
+        List<GameEvent> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new ArrayList<>();
+            scheduled = false;
+        }
+        deliver(coalesce(batch));
+    }
+
+    private void deliver(List<GameEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        for (GameEventListener listener : listeners) {
+            listener.onGameEvents(events);
+        }
+    }
+
+    // Drops events that later ones in the batch make redundant: everything on the board before the last
+    // GameStarted or GameReset, and every FlagChanged but the last for each flag
+    static List<GameEvent> coalesce(List<GameEvent> batch) {
+        int boardStart = 0;
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (batch.get(i).replacesBoard()) {
+                boardStart = i;
+                break;
+            }
+        }
+
+        List<GameEvent> kept = new ArrayList<>(batch.size());
+        boolean[] flagSeen = new boolean[GameEvent.Flag.values().length];
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            GameEvent event = batch.get(i);
+            if (event instanceof GameEvent.FlagChanged) {
+                int flag = ((GameEvent.FlagChanged) event).getFlag().ordinal();
+                if (!flagSeen[flag]) {
+                    flagSeen[flag] = true;
+                    kept.add(event);
+                }
+            } else if (i >= boardStart) {
+                kept.add(event);
+            }
+        }
+        Collections.reverse(kept);
+        return kept;
+    }
+}
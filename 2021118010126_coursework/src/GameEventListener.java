@@ -0,0 +1,9 @@
+import java.util.List;
+
+// Receives the events published on a GameEventBus
+public interface GameEventListener {
+    // Handles a batch of events in the order they happened
+    // A synchronous bus delivers one event per call; a coalescing bus delivers everything published
+    // since its last delivery, with events made redundant by later ones already removed
+    void onGameEvents(List<GameEvent> events);
+}
@@ -0,0 +1,554 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Append-only journal of a Model's games, so a game in progress survives the process exiting or crashing
+// The journal listens on the model's GameEventBus. Each event is packed into a long and put in a ring
+// buffer, which costs the publishing thread a short lock and no disk access. A writer thread drains
+// whatever has built up, writes it as one batch and fsyncs once per batch (group commit), so under load
+// one fsync covers hundreds of events. Every SNAPSHOT_INTERVAL records the writer saves the current game
+// to a snapshot file and empties the journal, so replay never reads more than one interval of records.
+//
+// Journal layout (big-endian):
+//   int  magic          "WJNL"
+//   int  version
+//   long generation     matches the snapshot this journal continues from
+//   records:
+//     int  length       of type and payload
+//     byte type         GAME_STARTED, ATTEMPT or RESET
+//     payload           GAME_STARTED: int start code, int target code; ATTEMPT: int index, int word code
+//     int  CRC32        of type and payload; a torn or corrupt record ends the journal
+//
+// Snapshot layout (big-endian), replaced atomically:
+//   int  magic          "WSNP"
+//   int  version
+//   long generation
+//   int  start code, int target code, int attempt count, int[attempt count] attempt codes
+//   int  CRC32          of everything before it
+public final class GameJournal implements GameEventListener, Closeable {
+    static final int MAGIC = 0x574A4E4C;
+    static final int SNAPSHOT_MAGIC = 0x57534E50;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    static final byte GAME_STARTED = 1;
+    static final byte ATTEMPT = 2;
+    static final byte RESET = 3;
+
+    static final int DEFAULT_SNAPSHOT_INTERVAL = 10_000;
+
+    // Journal kept by the CLI and GUI in the working directory
+    static final String JOURNAL_FILE = "game.journal";
+
+    private static final int RING_CAPACITY = 1 << 16;
+    private static final int MAX_RECORD_SIZE = 4 + 1 + 8 + 4;
+    private static final int NO_CODE = -1;
+
+    // The game a journal held when it was opened
+    public static final class RecoveredGame {
+        private final String startWord;
+        private final String targetWord;
+        private final List<String> attempts;
+
+        RecoveredGame(String startWord, String targetWord, List<String> attempts) {
+            this.startWord = startWord;
+            this.targetWord = targetWord;
+            this.attempts = Collections.unmodifiableList(attempts);
+        }
+
+        public String getStartWord() {
+            return startWord;
+        }
+
+        public String getTargetWord() {
+            return targetWord;
+        }
+
+        public List<String> getAttempts() {
+            return attempts;
+        }
+
+        // Checks if the game had been won, leaving nothing to resume
+        public boolean isFinished() {
+            return !attempts.isEmpty() && attempts.get(attempts.size() - 1).equals(targetWord);
+        }
+    }
+
+    private final Path file;
+    private final Path snapshotFile;
+    private final FileChannel channel;
+    private final int snapshotInterval;
+    private final RecoveredGame recovered;
+
+    // Packed events waiting for the writer, and the counts appended and made durable so far; guarded by this
+    private final long[] ring = new long[RING_CAPACITY];
+    private long appended;
+    private long durable;
+    private boolean closing;
+    private IOException failure;
+
+    // The game as of the last record written, kept by the writer thread for snapshots
+    private int startCode = NO_CODE;
+    private int targetCode = NO_CODE;
+    private int[] attemptCodes = new int[16];
+    private int attemptCount;
+    private long generation;
+    private int recordsSinceSnapshot;
+    private long fsyncs;
+
+    private final Thread writer;
+
+    private GameJournal(Path file, int snapshotInterval) throws IOException {
+        this.file = file;
+        this.snapshotFile = Paths.get(file + ".snapshot");
+        this.snapshotInterval = snapshotInterval;
+
+        long snapshotGeneration = readSnapshot();
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            recovered = replay(snapshotGeneration);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        writer = new Thread(this::writeLoop, "game-journal-" + file.getFileName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Opens or creates the journal at file, recovering the game it holds
+    public static GameJournal open(Path file) throws IOException {
+        return open(file, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    // Opens the journal, taking a snapshot and emptying the journal after every snapshotInterval records
+    public static GameJournal open(Path file, int snapshotInterval) throws IOException {
+        // Precondition: snapshots are taken at some point
+        assert snapshotInterval > 0 : "Snapshot interval must be positive";
+
+        return new GameJournal(file, snapshotInterval);
+    }
+
+    // Returns the game that was in progress when the journal was last written, or null if there was none
+    public RecoveredGame getRecoveredGame() {
+        return recovered;
+    }
+
+    // Opens the journal at file and attaches it to the model, restoring the unfinished game it holds
+    // Returns null, leaving the model as it was, if the journal cannot be opened
+    public static GameJournal resume(Path file, Model model) {
+        try {
+            GameJournal journal = open(file);
+            journal.attach(model);
+            return journal;
+        } catch (IOException e) {
+            System.err.println("Error opening game journal: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Restores the recovered game into the model if it was unfinished, then records every later change
+    // The model's current game is journaled first, so the journal is complete even if nothing was recovered
+    // Returns true if a game was restored
+    public boolean attach(Model model) {
+        boolean restored = recovered != null && !recovered.isFinished()
+                && model.restoreGame(recovered.getStartWord(), recovered.getTargetWord(), recovered.getAttempts());
+
+        append(pack(GAME_STARTED, Lexicon.encode(model.getStartWord()), Lexicon.encode(model.getTargetWord())));
+        List<String> attempts = model.getAttempts();
+        for (int i = 0; i < attempts.size(); i++) {
+            append(pack(ATTEMPT, i, Lexicon.encode(attempts.get(i))));
+        }
+        model.getEventBus().addListener(this);
+        return restored;
+    }
+
+    @Override
+    public void onGameEvents(List<GameEvent> events) {
+        for (GameEvent event : events) {
+            if (event instanceof GameEvent.GameStarted) {
+                GameEvent.GameStarted started = (GameEvent.GameStarted) event;
+                append(pack(GAME_STARTED, Lexicon.encode(started.getStartWord()),
+                        Lexicon.encode(started.getTargetWord())));
+            } else if (event instanceof GameEvent.AttemptAdded) {
+                GameEvent.AttemptAdded added = (GameEvent.AttemptAdded) event;
+                append(pack(ATTEMPT, added.getIndex(), Lexicon.encode(added.getWord())));
+            } else if (event instanceof GameEvent.GameReset) {
+                append(pack(RESET, 0, 0));
+            }
+        }
+    }
+
+    // Packs an event as type in the top byte, then first in 32 bits and second in the low 24
+    static long pack(byte type, int first, int second) {
+        return ((long) type << 56) | ((first & 0xFFFFFFFFL) << 24) | (second & 0xFFFFFF);
+    }
+
+    // Queues a packed event for the writer; blocks only if the writer has fallen a whole ring behind
+    synchronized void append(long event) {
+        while (appended - durable >= RING_CAPACITY && failure == null && !closing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (failure != null || closing) {
+            return;
+        }
+        ring[(int) (appended & (RING_CAPACITY - 1))] = event;
+        appended++;
+        notifyAll();
+    }
+
+    // Waits until everything appended so far is on disk
+    public void sync() throws IOException {
+        synchronized (this) {
+            long target = appended;
+            while (durable < target && failure == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while syncing the journal", e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    // Returns the number of events appended since the journal was opened
+    public synchronized long getAppendedCount() {
+        return appended;
+    }
+
+    // Returns the number of fsyncs done by the writer, one per batch
+    public synchronized long getFsyncCount() {
+        return fsyncs;
+    }
+
+    // Writes out everything appended, then stops the writer and closes the file
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closing = true;
+            notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    // Writer thread: takes every queued event, writes them as one batch and fsyncs once
+    private void writeLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(RING_CAPACITY * MAX_RECORD_SIZE);
+        CRC32 crc = new CRC32();
+        long[] batch = new long[RING_CAPACITY];
+        while (true) {
+            long from;
+            int count;
+            synchronized (this) {
+                while (appended == durable && !closing) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        closing = true;
+                    }
+                }
+                if (appended == durable) {
+                    return;
+                }
+                from = durable;
+                count = (int) (appended - durable);
+                for (int i = 0; i < count; i++) {
+                    batch[i] = ring[(int) ((from + i) & (RING_CAPACITY - 1))];
+                }
+            }
+
+            try {
+                buffer.clear();
+                for (int i = 0; i < count; i++) {
+                    encode(batch[i], buffer, crc);
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                for (int i = 0; i < count; i++) {
+                    apply(batch[i]);
+                }
+                recordsSinceSnapshot += count;
+                if (recordsSinceSnapshot >= snapshotInterval) {
+                    compact();
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing game journal: " + e.getMessage());
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+
+            synchronized (this) {
+                durable = from + count;
+                fsyncs++;
+                notifyAll();
+            }
+        }
+    }
+
+    // Writes one packed event as a record
+    private static void encode(long event, ByteBuffer buffer, CRC32 crc) {
+        byte type = (byte) (event >>> 56);
+        int first = (int) (event >>> 24);
+        int second = (int) (event & 0xFFFFFF);
+        int start = buffer.position();
+        buffer.putInt(type == RESET ? 1 : 9);
+        buffer.put(type);
+        if (type != RESET) {
+            buffer.putInt(first);
+            buffer.putInt(second);
+        }
+        crc.reset();
+        ByteBuffer body = buffer.duplicate();
+        body.position(start + 4).limit(buffer.position());
+        crc.update(body);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    // Moves the writer's copy of the game forward by one event
+    private void apply(long event) {
+        byte type = (byte) (event >>> 56);
+        int first = (int) (event >>> 24);
+        int second = (int) (event & 0xFFFFFF);
+        if (type == GAME_STARTED) {
+            startCode = first;
+            targetCode = second;
+            attemptCount = 0;
+        } else if (type == RESET) {
+            attemptCount = 0;
+        } else if (type == ATTEMPT && first >= 0 && first <= attemptCount) {
+            // An index below the count means events were coalesced away; the later attempt wins
+            if (first == attemptCodes.length) {
+                attemptCodes = Arrays.copyOf(attemptCodes, attemptCodes.length * 2);
+            }
+            attemptCodes[first] = second;
+            attemptCount = first + 1;
+        }
+    }
+
+    // Saves the current game as a new snapshot generation, then empties the journal to continue from it
+    // A crash between the two steps leaves a journal with an older generation, which open() discards
+    private void compact() throws IOException {
+        generation++;
+        writeSnapshot();
+
+        channel.truncate(HEADER_SIZE);
+        channel.write(header(generation), 0);
+        channel.force(true);
+        channel.position(HEADER_SIZE);
+        recordsSinceSnapshot = 0;
+    }
+
+    private static ByteBuffer header(long generation) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(generation);
+        header.flip();
+        return header;
+    }
+
+    private void writeSnapshot() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(28 + attemptCount * 4 + 4);
+        buffer.putInt(SNAPSHOT_MAGIC).putInt(VERSION).putLong(generation);
+        buffer.putInt(startCode).putInt(targetCode).putInt(attemptCount);
+        for (int i = 0; i < attemptCount; i++) {
+            buffer.putInt(attemptCodes[i]);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path directory = snapshotFile.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, snapshotFile.getFileName().toString(), ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Loads the snapshot into the writer's copy of the game and returns its generation, or 0 if there is none
+    private long readSnapshot() throws IOException {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+        if (buffer.remaining() < 32 || buffer.getInt(0) != SNAPSHOT_MAGIC || buffer.getInt(4) != VERSION) {
+            System.err.println("Ignoring unreadable journal snapshot: " + snapshotFile);
+            return 0;
+        }
+        int count = buffer.getInt(24);
+        if (count < 0 || buffer.remaining() != 28 + count * 4 + 4) {
+            System.err.println("Ignoring truncated journal snapshot: " + snapshotFile);
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.remaining() - 4);
+        if ((int) crc.getValue() != buffer.getInt(buffer.remaining() - 4)) {
+            System.err.println("Ignoring corrupt journal snapshot: " + snapshotFile);
+            return 0;
+        }
+
+        generation = buffer.getLong(8);
+        startCode = buffer.getInt(16);
+        targetCode = buffer.getInt(20);
+        attemptCodes = new int[Math.max(16, count)];
+        for (int i = 0; i < count; i++) {
+            attemptCodes[i] = buffer.getInt(28 + i * 4);
+        }
+        attemptCount = count;
+        return generation;
+    }
+
+    // Replays the journal's records on top of the snapshot, cutting off a torn tail, and returns the game
+    private RecoveredGame replay(long snapshotGeneration) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            startJournal(snapshotGeneration);
+            return recoveredGame();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // Keep reading until the buffer is full
+        }
+        buffer.flip();
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a game journal: " + file);
+        }
+        long journalGeneration = buffer.getLong(8);
+        if (journalGeneration < snapshotGeneration) {
+            // Compaction stopped after the snapshot was saved: every record here is already in it
+            startJournal(snapshotGeneration);
+            return recoveredGame();
+        }
+        if (journalGeneration > snapshotGeneration) {
+            System.err.println("Journal snapshot is missing; replaying the journal on its own");
+        }
+        generation = journalGeneration;
+
+        CRC32 crc = new CRC32();
+        int position = HEADER_SIZE;
+        while (position + 4 <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if ((length != 1 && length != 9) || position + 4 + length + 4 > buffer.limit()) {
+                break;
+            }
+            crc.reset();
+            ByteBuffer body = buffer.duplicate();
+            body.position(position + 4).limit(position + 4 + length);
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt(position + 4 + length)) {
+                break;
+            }
+            byte type = buffer.get(position + 4);
+            int first = length == 9 ? buffer.getInt(position + 5) : 0;
+            int second = length == 9 ? buffer.getInt(position + 9) : 0;
+            apply(pack(type, first, second));
+            recordsSinceSnapshot++;
+            position += 4 + length + 4;
+        }
+
+        if (position < size) {
+            System.err.println("Discarding " + (size - position) + " bytes of torn journal records");
+            channel.truncate(position);
+            channel.force(true);
+        }
+        channel.position(position);
+        return recoveredGame();
+    }
+
+    private void startJournal(long journalGeneration) throws IOException {
+        generation = journalGeneration;
+        channel.truncate(0);
+        channel.write(header(journalGeneration), 0);
+        channel.force(true);
+        channel.position(HEADER_SIZE);
+    }
+
+    private RecoveredGame recoveredGame() {
+        if (startCode == NO_CODE || targetCode == NO_CODE) {
+            return null;
+        }
+        List<String> attempts = new ArrayList<>(attemptCount);
+        for (int i = 0; i < attemptCount; i++) {
+            attempts.add(Lexicon.decode(attemptCodes[i]));
+        }
+        return new RecoveredGame(Lexicon.decode(startCode), Lexicon.decode(targetCode), attempts);
+    }
+
+    // Append throughput check: replays the default game's ladder into a journal as fast as events can be queued
+    // Usage: java GameJournal [journal file] [events]
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "bench.journal");
+        int events = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(Paths.get(path + ".snapshot"));
+
+        Model model = new Model();
+        List<String> ladder = model.findPath();
+        try (GameJournal journal = GameJournal.open(path)) {
+            journal.attach(model);
+            long begin = System.nanoTime();
+            while (journal.getAppendedCount() < events) {
+                if (model.hasWon()) {
+                    model.resetGame();
+                }
+                model.submitWord(ladder.get(model.getCurrentAttempt() + 1));
+            }
+            long queued = System.nanoTime() - begin;
+            journal.sync();
+            long elapsed = System.nanoTime() - begin;
+            System.out.printf("%,d events: queued in %.1f ms, durable in %.1f ms (%,.0f events/s), %,d fsyncs%n",
+                    journal.getAppendedCount(), queued / 1e6, elapsed / 1e6,
+                    journal.getAppendedCount() / (elapsed / 1e9), journal.getFsyncCount());
+        }
+
+        try (GameJournal journal = GameJournal.open(path)) {
+            RecoveredGame game = journal.getRecoveredGame();
+            System.out.println("Recovered " + game.getStartWord() + " -> " + game.getTargetWord()
+                    + " with attempts " + game.getAttempts());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Multi-connection benchmark for GameLineServer
+// Opens a crowd of idle connections, then has a set of active clients replay the default game's optimal
+// ladder over and over, timing each command from sending its line to reading the reply
+// Usage: java GameLineBenchmark [idle connections] [active clients] [rounds] [host:port]
+// Without host:port an in-process server is started on a free port; the client and server then share
+// one process, so idle connections count twice against the open-file limit
+public final class GameLineBenchmark {
+    public static void main(String[] args) throws Exception {
+        int idle = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int active = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        Lexicon lexicon = LexiconCache.shared("dictionary.txt");
+        GameLineServer server = null;
+        InetSocketAddress address;
+        if (args.length > 3) {
+            String[] hostPort = args[3].split(":");
+            address = new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1]));
+        } else {
+            server = new GameLineServer(lexicon, new InetSocketAddress("localhost", 0), 2);
+            server.start();
+            address = new InetSocketAddress("localhost", server.getPort());
+        }
+
+        List<SocketChannel> idleChannels = new ArrayList<>(idle);
+        try {
+            long begin = System.nanoTime();
+            for (int i = 0; i < idle; i++) {
+                idleChannels.add(SocketChannel.open(address));
+            }
+            System.out.printf("Opened %d idle connections in %.1f ms%n", idle, (System.nanoTime() - begin) / 1e6);
+
+            // Every connection starts on the default words, so they all replay the same ladder
+            List<String> ladder = new Model(lexicon).findPath();
+            List<String> moves = ladder.subList(1, ladder.size());
+
+            ExecutorService pool = Executors.newFixedThreadPool(active);
+            try {
+                List<Future<long[]>> results = new ArrayList<>();
+                begin = System.nanoTime();
+                for (int i = 0; i < active; i++) {
+                    results.add(pool.submit(() -> play(address, moves, rounds)));
+                }
+
+                long[] latencies = new long[0];
+                for (Future<long[]> result : results) {
+                    long[] client = result.get();
+                    int offset = latencies.length;
+                    latencies = Arrays.copyOf(latencies, offset + client.length);
+                    System.arraycopy(client, 0, latencies, offset, client.length);
+                }
+                long elapsed = System.nanoTime() - begin;
+                Arrays.sort(latencies);
+
+                if (server != null) {
+                    System.out.println("Server connections: " + server.connectionCount());
+                }
+                System.out.printf("%d active clients x %d rounds: %d commands in %.1f ms, %,.0f commands/s%n",
+                        active, rounds, latencies.length, elapsed / 1e6, latencies.length / (elapsed / 1e9));
+                System.out.printf("latency us: p50 %.1f, p99 %.1f, max %.1f%n",
+                        latencies[latencies.length / 2] / 1e3,
+                        latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1e3,
+                        latencies[latencies.length - 1] / 1e3);
+            } finally {
+                pool.shutdown();
+            }
+        } finally {
+            for (SocketChannel channel : idleChannels) {
+                channel.close();
+            }
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    // One active client: restarts and plays the ladder each round, returning every command's latency
+    private static long[] play(InetSocketAddress address, List<String> moves, int rounds) throws IOException {
+        long[] latencies = new long[rounds * (moves.size() + 1)];
+        int count = 0;
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            channel.socket().setTcpNoDelay(true);
+            ByteBuffer in = ByteBuffer.allocateDirect(GameLineServer.BUFFER_SIZE);
+            ByteBuffer restart = ByteBuffer.wrap("restart\n".getBytes(StandardCharsets.US_ASCII));
+            ByteBuffer[] words = new ByteBuffer[moves.size()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = ByteBuffer.wrap((moves.get(i) + "\n").getBytes(StandardCharsets.US_ASCII));
+            }
+
+            // Greeting
+            readLine(channel, in);
+            for (int round = 0; round < rounds; round++) {
+                latencies[count++] = roundTrip(channel, restart, in, "GAME");
+                for (ByteBuffer word : words) {
+                    latencies[count++] = roundTrip(channel, word, in, "");
+                }
+            }
+        }
+        return latencies;
+    }
+
+    private static long roundTrip(SocketChannel channel, ByteBuffer command, ByteBuffer in, String expected)
+            throws IOException {
+        long begin = System.nanoTime();
+        command.rewind();
+        while (command.hasRemaining()) {
+            channel.write(command);
+        }
+        String reply = readLine(channel, in);
+        long elapsed = System.nanoTime() - begin;
+        if (reply.startsWith("ERR") || !reply.startsWith(expected)) {
+            throw new IllegalStateException("Unexpected reply: " + reply);
+        }
+        return elapsed;
+    }
+
+    // Reads one reply line, keeping any bytes after it in the buffer for the next call
+    private static String readLine(SocketChannel channel, ByteBuffer in) throws IOException {
+        while (true) {
+            for (int i = 0; i < in.position(); i++) {
+                if (in.get(i) == '\n') {
+                    byte[] line = new byte[i];
+                    in.flip();
+                    in.get(line);
+                    in.get();
+                    in.compact();
+                    return new String(line, StandardCharsets.US_ASCII);
+                }
+            }
+            if (channel.read(in) < 0) {
+                throw new IOException("Server closed the connection");
+            }
+        }
+    }
+}
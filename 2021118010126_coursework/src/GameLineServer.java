@@ -0,0 +1,724 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+// Non-blocking TCP server speaking the CLI command language, one line per command, one Model per connection
+//
+//   <word>                    submit a word    -> OK <word> <feedback> <attempts> | WON ... | ERR [message]
+//   restart                   reset the game   -> GAME <start> <target>
+//   new | new <moves>         new game         -> GAME <start> <target>
+//   hint                      next optimal word -> HINT <word> <moves left> | HINT none
+//   set errors|path|random|finder <value>      -> SET <flag> <value>, then GAME if the game changed
+//   exit                      close            -> BYE
+//
+// Feedback is G (correct), Y (wrong position) or X (not in word) per letter. With the path flag on,
+// every GAME line is followed by PATH <words...>
+//
+// One thread accepts connections and hands them round-robin to a few worker threads, each running its
+// own Selector. Commands are matched against the raw bytes in pooled direct buffers and replies are
+// written straight into them, so the only per-command allocation is the String of an accepted word,
+// which the Model keeps in its attempts. A reply that fills its buffer carries on in another pooled one,
+// so no reply is limited by the buffer size. A line longer than a buffer is answered with an error and
+// dropped up to its newline. A command that fails unexpectedly closes only its own connection; the worker
+// carries on serving the others
+//
+// Hints, new <moves> and PATH replies may search the word graph or build the distance table, so they run
+// on a small search pool rather than a worker. The connection reads no further commands until the search
+// is done and its worker has written the reply, so replies stay in order and a Model is still used by one
+// thread at a time, while every other connection on the worker is served in the meantime
+public final class GameLineServer {
+    public static final int DEFAULT_PORT = 4040;
+
+    // Longest command line, and the size of every pooled buffer
+    static final int BUFFER_SIZE = 1024;
+    // Room wanted in the output buffer before running a command; with less free, the connection stops
+    // reading until its output drains. Replies longer than this spill into further buffers
+    private static final int MAX_REPLY = 256;
+    private static final int RETAINED_BUFFERS = 256;
+
+    private static final byte[] EXIT = ascii("exit");
+    private static final byte[] RESTART = ascii("restart");
+    private static final byte[] NEW = ascii("new");
+    private static final byte[] HINT = ascii("hint");
+    private static final byte[] SET = ascii("set");
+    private static final byte[] ERRORS = ascii("errors");
+    private static final byte[] PATH = ascii("path");
+    private static final byte[] RANDOM = ascii("random");
+    private static final byte[] FINDER = ascii("finder");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] ON = ascii("on");
+    private static final byte[] ONE = ascii("1");
+
+    private final Lexicon lexicon;
+    private final ServerSocketChannel serverChannel;
+    private final Worker[] workers;
+    private final Thread acceptor;
+    private final ExecutorService searches;
+    private volatile boolean running;
+
+    public GameLineServer(Lexicon lexicon, InetSocketAddress address, int workerCount) throws IOException {
+        this.lexicon = lexicon;
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+
+        workers = new Worker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Worker(i);
+        }
+        acceptor = new Thread(this::acceptLoop, "line-acceptor");
+        searches = Executors.newFixedThreadPool(workerCount, search -> new Thread(search, "line-search"));
+    }
+
+    public void start() {
+        running = true;
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+        acceptor.start();
+    }
+
+    // Closes the listening socket and every connection
+    public void stop() throws IOException {
+        running = false;
+        serverChannel.close();
+        for (Worker worker : workers) {
+            worker.selector.wakeup();
+        }
+        try {
+            acceptor.join();
+            for (Worker worker : workers) {
+                worker.thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searches.shutdown();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    // Returns the number of open connections
+    public int connectionCount() {
+        int count = 0;
+        for (Worker worker : workers) {
+            count += worker.connections;
+        }
+        return count;
+    }
+
+    // Blocking accept loop; new connections are registered by the worker that will serve them
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                Worker worker = workers[next];
+                next = (next + 1) % workers.length;
+                worker.pending.add(channel);
+                worker.selector.wakeup();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Error accepting connection: " + e.getMessage());
+            }
+        }
+    }
+
+    // Writes the reply to a command whose search ran on the search pool; run by the connection's worker
+    private interface Reply {
+        void write(Connection connection);
+    }
+
+    // A finished search and the connection waiting for it
+    private static final class SearchResult {
+        final SelectionKey key;
+        final Reply reply;  // Null if the search failed
+
+        SearchResult(SelectionKey key, Reply reply) {
+            this.key = key;
+            this.reply = reply;
+        }
+    }
+
+    // State of one client; touched only by the worker thread that owns it, except that a search on the
+    // search pool uses the Model, which the worker leaves alone until the search's reply comes back
+    private static final class Connection {
+        final SocketChannel channel;
+        final Model model;
+        final BufferPool pool;  // The owning worker's pool
+        // Output buffers that filled up, flipped and in order, waiting to be written before out
+        final ArrayDeque<ByteBuffer> filled = new ArrayDeque<>();
+        ByteBuffer in;       // Borrowed while a partial line is waiting, otherwise null
+        ByteBuffer out;      // Borrowed while replies are waiting to be written, otherwise null
+        boolean closing;     // Set by exit; the connection closes once its replies are written
+        boolean discarding;  // Set after a line too long for the buffer; input is dropped up to its newline
+        Supplier<Reply> search;  // Set by a command that must search; the worker hands it to the search pool
+        boolean searching;   // Set while a search runs; no further command is read until its reply is written
+
+        Connection(SocketChannel channel, Model model, BufferPool pool) {
+            this.channel = channel;
+            this.model = model;
+            this.pool = pool;
+        }
+
+        // Checks if enough output is waiting that no further command should run until some is written
+        boolean backlogged() {
+            return !filled.isEmpty() || out != null && out.remaining() < MAX_REPLY;
+        }
+    }
+
+    private final class Worker {
+        final Selector selector;
+        final Thread thread;
+        final BufferPool pool = new BufferPool(BUFFER_SIZE, RETAINED_BUFFERS);
+        final ConcurrentLinkedQueue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+        final ConcurrentLinkedQueue<SearchResult> searched = new ConcurrentLinkedQueue<>();
+        volatile int connections;
+
+        Worker(int index) throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this::run, "line-worker-" + index);
+        }
+
+        private void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    registerPending();
+                    finishSearches();
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        handle(key);
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException e) {
+                System.err.println("Error in line server worker: " + e.getMessage());
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    close(key);
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing selector: " + e.getMessage());
+                }
+            }
+        }
+
+        private void registerPending() {
+            SocketChannel channel;
+            while ((channel = pending.poll()) != null) {
+                // Same starting flags as the CLI
+                Model model = new Model(lexicon);
+                model.setShowErrorMessages(true);
+                Connection connection = new Connection(channel, model, pool);
+
+                SelectionKey key;
+                try {
+                    key = channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (ClosedChannelException e) {
+                    continue;
+                }
+                connections++;
+                try {
+                    writeGame(connection);
+                    flush(key, connection);
+                } catch (IOException e) {
+                    close(key);
+                } catch (RuntimeException e) {
+                    System.err.println("Error greeting connection: " + e);
+                    close(key);
+                }
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isValid() && key.isWritable()) {
+                    flush(key, connection);
+                }
+                if (key.isValid() && key.isReadable()) {
+                    if (connection.in == null) {
+                        connection.in = pool.acquire();
+                    }
+                    if (connection.channel.read(connection.in) < 0) {
+                        close(key);
+                        return;
+                    }
+                }
+                if (key.isValid() && connection.in != null && !connection.closing && !connection.searching) {
+                    process(key, connection);
+                }
+            } catch (IOException e) {
+                close(key);
+            } catch (RuntimeException e) {
+                // A bug or unexpected input costs this client its connection, never the worker
+                System.err.println("Error serving connection: " + e);
+                close(key);
+            }
+        }
+
+        // Runs every complete line in the input buffer, stopping early if replies cannot be written yet
+        // or a command has to wait for a search
+        private void process(SelectionKey key, Connection connection) throws IOException {
+            ByteBuffer in = connection.in;
+            in.flip();
+            boolean blocked = false;
+            while (!connection.closing && !connection.searching) {
+                int end = indexOf(in, (byte) '\n');
+                if (connection.discarding) {
+                    // The rest of an overlong line is never run as a command
+                    if (end < 0) {
+                        in.position(in.limit());
+                        break;
+                    }
+                    in.position(end + 1);
+                    connection.discarding = false;
+                    continue;
+                }
+                if (end < 0) {
+                    break;
+                }
+                if (connection.backlogged()) {
+                    flush(key, connection);
+                    if (connection.backlogged()) {
+                        blocked = true;
+                        break;
+                    }
+                }
+                runCommand(connection, in, in.position(), end);
+                in.position(end + 1);
+                if (connection.search != null) {
+                    startSearch(key, connection);
+                }
+            }
+            in.compact();
+
+            if (!blocked && !connection.searching && !in.hasRemaining()) {
+                // A full buffer with no newline can never complete; drop the rest of the line as it arrives
+                in.clear();
+                connection.discarding = true;
+                writeAscii(connection, "ERR line too long\n");
+            }
+            if (in.position() == 0) {
+                pool.release(in);
+                connection.in = null;
+            }
+            flush(key, connection);
+        }
+
+        // Writes as much pending output as the socket takes; waits for OP_WRITE, and stops reading, if not all
+        private void flush(SelectionKey key, Connection connection) throws IOException {
+            ByteBuffer full;
+            while ((full = connection.filled.peekFirst()) != null) {
+                connection.channel.write(full);
+                if (full.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+                pool.release(connection.filled.pollFirst());
+            }
+
+            ByteBuffer out = connection.out;
+            if (out != null) {
+                out.flip();
+                connection.channel.write(out);
+                if (out.hasRemaining()) {
+                    out.compact();
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+                pool.release(out);
+                connection.out = null;
+            }
+
+            if (connection.closing) {
+                close(key);
+            } else {
+                // While a search runs nothing is read, so a client cannot queue up unbounded input
+                key.interestOps(connection.searching ? 0 : SelectionKey.OP_READ);
+            }
+        }
+
+        // Hands the connection's search to the search pool; the reply comes back through finishSearches
+        private void startSearch(SelectionKey key, Connection connection) {
+            Supplier<Reply> search = connection.search;
+            connection.search = null;
+            connection.searching = true;
+            try {
+                searches.execute(() -> {
+                    Reply reply = null;
+                    try {
+                        reply = search.get();
+                    } catch (RuntimeException e) {
+                        System.err.println("Error searching for connection: " + e);
+                    }
+                    searched.add(new SearchResult(key, reply));
+                    selector.wakeup();
+                });
+            } catch (RejectedExecutionException e) {
+                // The server is stopping
+                searched.add(new SearchResult(key, null));
+            }
+        }
+
+        // Writes the replies of finished searches and carries on with each connection's waiting commands
+        private void finishSearches() {
+            SearchResult result;
+            while ((result = searched.poll()) != null) {
+                SelectionKey key = result.key;
+                if (!key.isValid()) {
+                    continue;
+                }
+                Connection connection = (Connection) key.attachment();
+                connection.searching = false;
+                try {
+                    if (result.reply == null) {
+                        close(key);
+                        continue;
+                    }
+                    result.reply.write(connection);
+                    if (connection.search != null) {
+                        // The reply needs a further search, such as the path of a new game
+                        startSearch(key, connection);
+                        flush(key, connection);
+                    } else if (connection.in != null) {
+                        process(key, connection);
+                    } else {
+                        flush(key, connection);
+                    }
+                } catch (IOException e) {
+                    close(key);
+                } catch (RuntimeException e) {
+                    System.err.println("Error serving connection: " + e);
+                    close(key);
+                }
+            }
+        }
+
+        private void close(SelectionKey key) {
+            // A key stays in the selector's key set until the next select after it is cancelled
+            if (!key.isValid()) {
+                return;
+            }
+            Connection connection = (Connection) key.attachment();
+            key.cancel();
+            try {
+                connection.channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing connection: " + e.getMessage());
+            }
+            if (connection.in != null) {
+                pool.release(connection.in);
+                connection.in = null;
+            }
+            if (connection.out != null) {
+                pool.release(connection.out);
+                connection.out = null;
+            }
+            while (!connection.filled.isEmpty()) {
+                pool.release(connection.filled.pollFirst());
+            }
+            connections--;
+        }
+    }
+
+    // Runs one command line in [from, to) of the input and appends the reply to the connection's output
+    private static void runCommand(Connection connection, ByteBuffer in, int from, int to) {
+        // Ignore surrounding blanks and a Windows line ending
+        while (to > from && in.get(to - 1) <= ' ') {
+            to--;
+        }
+        while (from < to && in.get(from) <= ' ') {
+            from++;
+        }
+        Model model = connection.model;
+        int wordEnd = nextBlank(in, from, to);
+
+        if (from == to) {
+            writeAscii(connection, "ERR empty command\n");
+        } else if (matches(in, from, wordEnd, EXIT)) {
+            writeAscii(connection, "BYE\n");
+            connection.closing = true;
+        } else if (matches(in, from, wordEnd, RESTART)) {
+            model.resetGame();
+            writeGame(connection);
+        } else if (matches(in, from, wordEnd, NEW)) {
+            startNewGame(connection, in, skipBlanks(in, wordEnd, to), to);
+        } else if (matches(in, from, wordEnd, HINT)) {
+            // The first hint for a target builds its distance map
+            connection.search = () -> {
+                String hint = model.getHint();
+                int distance = model.getDistanceToTarget();
+                return reply -> writeHint(reply, hint, distance);
+            };
+        } else if (matches(in, from, wordEnd, SET)) {
+            setFlag(connection, in, skipBlanks(in, wordEnd, to), to);
+        } else if (wordEnd == to && to - from == Lexicon.WORD_LENGTH) {
+            submit(connection, in, from);
+        } else {
+            writeAscii(connection, model.isShowErrorMessages() ? "ERR Word must be 4 letters long\n" : "ERR\n");
+        }
+    }
+
+    // Submits a four-letter word; the String is built only here because the Model keeps it
+    private static void submit(Connection connection, ByteBuffer in, int from) {
+        Model model = connection.model;
+        byte[] letters = new byte[Lexicon.WORD_LENGTH];
+        in.get(from, letters);
+        String word = new String(letters, StandardCharsets.US_ASCII).toLowerCase();
+
+        if (!model.isValidWord(word)) {
+            writeAscii(connection, model.isShowErrorMessages()
+                    ? "ERR Invalid word. It must be in the dictionary and differ by exactly one letter from the previous word.\n"
+                    : "ERR\n");
+            return;
+        }
+        model.submitWord(word);
+
+        int attempt = model.getCurrentAttempt();
+        writeAscii(connection, model.hasWon() ? "WON " : "OK ");
+        writeAscii(connection, word);
+        put(connection, ' ');
+        int feedback = model.getAttemptFeedback(attempt - 1);
+        for (int i = 0; i < Lexicon.WORD_LENGTH; i++) {
+            int state = Feedback.stateAt(feedback, i);
+            put(connection, (state == Feedback.CORRECT ? 'G' : state == Feedback.PRESENT ? 'Y' : 'X'));
+        }
+        put(connection, ' ');
+        writeInt(connection, attempt);
+        put(connection, '\n');
+    }
+
+    // new starts a random game like the CLI; new <moves> starts one with that optimal length
+    private static void startNewGame(Connection connection, ByteBuffer in, int from, int to) {
+        Model model = connection.model;
+        if (from == to) {
+            model.setRandomWords(true);
+            writeGame(connection);
+            return;
+        }
+
+        int moves = parseInt(in, from, to);
+        if (moves < 0) {
+            writeAscii(connection, "ERR Use 'new <moves>'\n");
+            return;
+        }
+        // The first game of a set length builds the distance table and its buckets
+        connection.search = () -> {
+            try {
+                model.newGame(moves);
+            } catch (IllegalArgumentException e) {
+                String message = e.getMessage();
+                return reply -> {
+                    writeAscii(reply, "ERR ");
+                    writeAscii(reply, message);
+                    put(reply, '\n');
+                };
+            }
+            return GameLineServer::writeGame;
+        };
+    }
+
+    private static void setFlag(Connection connection, ByteBuffer in, int from, int to) {
+        Model model = connection.model;
+        int flagEnd = nextBlank(in, from, to);
+        int valueFrom = skipBlanks(in, flagEnd, to);
+        if (valueFrom == to || nextBlank(in, valueFrom, to) != to) {
+            writeAscii(connection, "ERR Use 'set <flag> <value>'\n");
+            return;
+        }
+        boolean value = matches(in, valueFrom, to, TRUE) || matches(in, valueFrom, to, ON) || matches(in, valueFrom, to, ONE);
+
+        if (matches(in, from, flagEnd, ERRORS)) {
+            model.setShowErrorMessages(value);
+            writeFlag(connection, "errors", value);
+        } else if (matches(in, from, flagEnd, PATH)) {
+            model.setShowPath(value);
+            writeFlag(connection, "path", value);
+            if (value) {
+                searchPath(connection);
+            }
+        } else if (matches(in, from, flagEnd, RANDOM)) {
+            // Like the CLI, changing this setting starts a new game
+            model.setRandomWords(value);
+            writeFlag(connection, "random", value);
+            writeGame(connection);
+        } else if (matches(in, from, flagEnd, FINDER)) {
+            byte[] name = new byte[to - valueFrom];
+            in.get(valueFrom, name);
+            try {
+                model.setPathFinder(new String(name, StandardCharsets.US_ASCII).toLowerCase());
+                writeAscii(connection, "SET finder ");
+                writeAscii(connection, model.getPathFinder());
+                put(connection, '\n');
+            } catch (IllegalArgumentException e) {
+                // The exception's message quotes the client's text, so it is not echoed back
+                writeAscii(connection, "ERR Unknown path finder (use bfs, bidirectional or astar)\n");
+            }
+        } else {
+            writeAscii(connection, "ERR Unknown flag. Available flags: errors, path, random, finder\n");
+        }
+    }
+
+    // Writes the GAME line; with the path flag on, the PATH line follows once it has been searched for
+    private static void writeGame(Connection connection) {
+        Model model = connection.model;
+        writeAscii(connection, "GAME ");
+        writeAscii(connection, model.getStartWord());
+        put(connection, ' ');
+        writeAscii(connection, model.getTargetWord());
+        put(connection, '\n');
+        if (model.isShowPath()) {
+            searchPath(connection);
+        }
+    }
+
+    // Asks for the game's path to be found on the search pool and written as a PATH line
+    private static void searchPath(Connection connection) {
+        Model model = connection.model;
+        connection.search = () -> {
+            List<String> path = model.findPath();
+            return reply -> writePath(reply, path);
+        };
+    }
+
+    private static void writePath(Connection connection, List<String> path) {
+        writeAscii(connection, "PATH");
+        for (String word : path) {
+            put(connection, ' ');
+            writeAscii(connection, word);
+        }
+        put(connection, '\n');
+    }
+
+    private static void writeHint(Connection connection, String hint, int distance) {
+        if (hint == null) {
+            writeAscii(connection, "HINT none\n");
+            return;
+        }
+        writeAscii(connection, "HINT ");
+        writeAscii(connection, hint);
+        put(connection, ' ');
+        writeInt(connection, distance);
+        put(connection, '\n');
+    }
+
+    private static void writeFlag(Connection connection, String flag, boolean value) {
+        writeAscii(connection, "SET ");
+        writeAscii(connection, flag);
+        writeAscii(connection, value ? " true\n" : " false\n");
+    }
+
+    // Appends one byte of reply, moving on to a fresh pooled buffer when the current one is full
+    private static void put(Connection connection, int value) {
+        ByteBuffer out = connection.out;
+        if (out == null) {
+            out = connection.out = connection.pool.acquire();
+        } else if (!out.hasRemaining()) {
+            out.flip();
+            connection.filled.addLast(out);
+            out = connection.out = connection.pool.acquire();
+        }
+        out.put((byte) value);
+    }
+
+    // Copies the characters of an ASCII string without encoding it to a byte array first
+    private static void writeAscii(Connection connection, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            put(connection, text.charAt(i));
+        }
+    }
+
+    private static void writeInt(Connection connection, int value) {
+        if (value >= 10) {
+            writeInt(connection, value / 10);
+        }
+        put(connection, '0' + value % 10);
+    }
+
+    // Returns the non-negative decimal in [from, to), or -1 if it is not one
+    private static int parseInt(ByteBuffer in, int from, int to) {
+        if (to - from > 4) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = in.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // Compares [from, to) with a lower-case keyword, ignoring case
+    private static boolean matches(ByteBuffer in, int from, int to, byte[] keyword) {
+        if (to - from != keyword.length) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length; i++) {
+            if ((in.get(from + i) | 0x20) != keyword[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int nextBlank(ByteBuffer in, int from, int to) {
+        while (from < to && in.get(from) > ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int skipBlanks(ByteBuffer in, int from, int to) {
+        while (from < to && in.get(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value) {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Usage: java GameLineServer [port] [workers] [dictionary.txt]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        String path = args.length > 2 ? args[2] : "dictionary.txt";
+
+        GameLineServer server = new GameLineServer(LexiconCache.shared(path), new InetSocketAddress(port), workers);
+        server.start();
+        System.out.println("Weaver line server listening on port " + server.getPort() + " with " + workers + " workers");
+    }
+}
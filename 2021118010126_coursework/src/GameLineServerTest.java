@@ -0,0 +1,175 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+public class GameLineServerTest {
+
+    private Lexicon lexicon;
+
+    @Before
+    public void setUp() {
+        lexicon = LexiconCache.shared("dictionary.txt");
+    }
+
+    /**
+     * Scenario 1: Test the line protocol server
+     *
+     * This test verifies:
+     * 1. a connection is greeted with its game and commands pipelined in one write are answered in order
+     * 2. words, flags, hints and errors follow the CLI's rules
+     * 3. exit closes the connection
+     */
+    @Test
+    public void testLineServer() throws Exception {
+        GameLineServer server = new GameLineServer(lexicon, new InetSocketAddress("localhost", 0), 1);
+        server.start();
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", server.getPort()))) {
+            channel.write(ByteBuffer.wrap(("PALE\r\nxxxx\nset errors off\nxxxx\n  hint \n"
+                    + "set finder nope\nrestart\nnew 3\nexit\n").getBytes(StandardCharsets.US_ASCII)));
+
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                received.write(buffer.array(), 0, buffer.limit());
+                buffer.clear();
+            }
+            String[] lines = received.toString(StandardCharsets.US_ASCII).split("\n");
+
+            assertEquals("GAME sale opal", lines[0]);
+            assertEquals("OK pale YYYX 1", lines[1]);
+            assertTrue(lines[2].startsWith("ERR Invalid word"));
+            assertEquals("SET errors false", lines[3]);
+            assertEquals("ERR", lines[4]);
+            assertTrue(lines[5].startsWith("HINT "));
+            assertTrue(lines[6].startsWith("ERR Unknown path finder"));
+            assertEquals("GAME sale opal", lines[7]);
+            assertTrue(lines[8].startsWith("GAME "));
+            assertEquals("BYE", lines[9]);
+            assertEquals(10, lines.length);
+        } finally {
+            server.stop();
+        }
+        assertEquals(0, server.connectionCount());
+    }
+
+    /**
+     * Scenario 2: Test that a hostile line costs only its own client
+     *
+     * This test verifies:
+     * 1. an oversized path finder name gets a fixed error rather than an echo of the name
+     * 2. the connection that sent it is still served afterwards
+     * 3. another client on the same worker is still greeted and served
+     */
+    @Test
+    public void testLineServerSurvivesOversizedInput() throws Exception {
+        GameLineServer server = new GameLineServer(lexicon, new InetSocketAddress("localhost", 0), 1);
+        server.start();
+        try (Socket first = new Socket("localhost", server.getPort());
+             Socket second = new Socket("localhost", server.getPort())) {
+            BufferedReader firstIn = reader(first);
+            assertEquals("GAME sale opal", firstIn.readLine());
+            StringBuilder name = new StringBuilder("set finder ");
+            while (name.length() < GameLineServer.BUFFER_SIZE - 2) {
+                name.append('x');
+            }
+            first.getOutputStream().write((name + "\nhint\n").getBytes(StandardCharsets.US_ASCII));
+            assertEquals("ERR Unknown path finder (use bfs, bidirectional or astar)", firstIn.readLine());
+            assertTrue(firstIn.readLine().startsWith("HINT "));
+
+            BufferedReader secondIn = reader(second);
+            assertEquals("GAME sale opal", secondIn.readLine());
+            second.getOutputStream().write("pale\nexit\n".getBytes(StandardCharsets.US_ASCII));
+            assertEquals("OK pale YYYX 1", secondIn.readLine());
+            assertEquals("BYE", secondIn.readLine());
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Scenario 3: Test that the rest of an overlong line is never run
+     *
+     * This test verifies:
+     * 1. a line longer than the buffer gets one error
+     * 2. a valid command at the end of that line is dropped with the rest of it
+     * 3. the next line is run as usual
+     */
+    @Test
+    public void testLineServerDropsOverlongLine() throws Exception {
+        GameLineServer server = new GameLineServer(lexicon, new InetSocketAddress("localhost", 0), 1);
+        server.start();
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            BufferedReader in = reader(socket);
+            assertEquals("GAME sale opal", in.readLine());
+            StringBuilder line = new StringBuilder();
+            while (line.length() < GameLineServer.BUFFER_SIZE * 2) {
+                line.append(' ');
+            }
+            socket.getOutputStream().write((line + "exit\npale\n").getBytes(StandardCharsets.US_ASCII));
+            assertEquals("ERR line too long", in.readLine());
+            // Had the tail run, the server would have said BYE and closed the connection
+            assertEquals("OK pale YYYX 1", in.readLine());
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Scenario 4: Test commands that search off the worker thread
+     *
+     * This test verifies:
+     * 1. hints, games of a set length and paths are answered, each PATH right after its GAME
+     * 2. commands pipelined behind a search are answered after it, in order
+     * 3. another client on the same worker is served while a connection waits for its searches
+     */
+    @Test
+    public void testLineServerSearchesInOrder() throws Exception {
+        GameLineServer server = new GameLineServer(lexicon, new InetSocketAddress("localhost", 0), 1);
+        server.start();
+        try (Socket first = new Socket("localhost", server.getPort());
+             Socket second = new Socket("localhost", server.getPort())) {
+            BufferedReader firstIn = reader(first);
+            BufferedReader secondIn = reader(second);
+            assertEquals("GAME sale opal", firstIn.readLine());
+            assertEquals("GAME sale opal", secondIn.readLine());
+
+            first.getOutputStream().write("set path on\nnew 4\nhint\nrestart\nxxxx\nexit\n".getBytes(StandardCharsets.US_ASCII));
+            second.getOutputStream().write("pale\n".getBytes(StandardCharsets.US_ASCII));
+            assertEquals("OK pale YYYX 1", secondIn.readLine());
+
+            assertEquals("SET path true", firstIn.readLine());
+            assertTrue(firstIn.readLine().startsWith("PATH sale "));
+            String[] game = firstIn.readLine().split(" ");
+            assertEquals("GAME", game[0]);
+            String[] path = firstIn.readLine().split(" ");
+            assertEquals("PATH", path[0]);
+            assertEquals(6, path.length);
+            assertEquals(game[1], path[1]);
+            assertEquals(game[2], path[5]);
+            String hint = firstIn.readLine();
+            assertTrue(hint.startsWith("HINT ") && hint.endsWith(" 4"));
+            assertEquals(String.join(" ", game), firstIn.readLine());
+            assertEquals(String.join(" ", path), firstIn.readLine());
+            assertTrue(firstIn.readLine().startsWith("ERR Invalid word"));
+            assertEquals("BYE", firstIn.readLine());
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        socket.setSoTimeout(10_000);
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+}
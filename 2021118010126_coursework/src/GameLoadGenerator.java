@@ -0,0 +1,157 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Load generator for GameServer: simulated players each start games and play them to the target by hints
+// Players are chains of asynchronous requests rather than threads, so thousands can run on a laptop
+// Reports requests per second and latency percentiles over every request sent
+// Usage: java GameLoadGenerator [players] [games per player] [base url]
+// Without a base url an in-process server is started on a free port
+public final class GameLoadGenerator {
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final Pattern HINT = Pattern.compile("\"hint\":\"([a-z]+)\"");
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String baseUrl;
+
+    GameLoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    // One simulated player; its requests run one at a time, so it records latencies without locking
+    private final class Player {
+        private long[] latencies = new long[64];
+        private int count;
+        private int failures;
+
+        // Plays the given number of games one after another; a game that fails is counted and abandoned
+        CompletableFuture<Void> play(int games) {
+            CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+            for (int i = 0; i < games; i++) {
+                chain = chain.thenCompose(ignored -> playGame().exceptionally(e -> {
+                    failures++;
+                    return null;
+                }));
+            }
+            return chain;
+        }
+
+        private CompletableFuture<Void> playGame() {
+            return send("POST", "/games").thenCompose(body -> {
+                Matcher id = ID.matcher(body);
+                if (!id.find()) {
+                    failures++;
+                    return CompletableFuture.completedFuture(null);
+                }
+                String game = "/games/" + id.group(1);
+                return nextMove(game).thenCompose(ignored -> send("DELETE", game)).thenApply(ignored -> null);
+            });
+        }
+
+        // Asks for a hint and submits it until the server has no further hint, i.e. the game is won
+        private CompletableFuture<Void> nextMove(String game) {
+            return send("GET", game + "/hint").thenCompose(body -> {
+                Matcher hint = HINT.matcher(body);
+                if (!hint.find()) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                return send("POST", game + "/submit?word=" + hint.group(1)).thenCompose(ignored -> nextMove(game));
+            });
+        }
+
+        private CompletableFuture<String> send(String method, String path) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .method(method, HttpRequest.BodyPublishers.noBody())
+                    .build();
+            long begin = System.nanoTime();
+            return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+                record(System.nanoTime() - begin);
+                if (response.statusCode() >= 400) {
+                    failures++;
+                }
+                return response.body();
+            });
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    // Runs every player to completion and prints throughput and latency percentiles
+    void run(int players, int games) {
+        Player[] all = new Player[players];
+        CompletableFuture<?>[] done = new CompletableFuture<?>[players];
+        long begin = System.nanoTime();
+        for (int i = 0; i < players; i++) {
+            all[i] = new Player();
+            done[i] = all[i].play(games);
+        }
+        CompletableFuture.allOf(done).join();
+        long elapsed = System.nanoTime() - begin;
+
+        int total = 0;
+        int failures = 0;
+        for (Player player : all) {
+            total += player.count;
+            failures += player.failures;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Player player : all) {
+            System.arraycopy(player.latencies, 0, latencies, offset, player.count);
+            offset += player.count;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("%d players x %d games: %d requests (%d failed) in %.1f s, %,.0f requests/s%n",
+                players, games, total, failures, elapsed / 1e9, total / (elapsed / 1e9));
+        System.out.printf("latency ms: p50 %.2f, p90 %.2f, p99 %.2f, max %.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        GameServer server = null;
+        String baseUrl;
+        if (args.length > 2) {
+            baseUrl = args[2];
+        } else {
+            server = new GameServer(new GameEngine(LexiconCache.shared("dictionary.txt")), new InetSocketAddress("localhost", 0));
+            server.start();
+            baseUrl = "http://localhost:" + server.getPort();
+        }
+
+        try {
+            GameLoadGenerator generator = new GameLoadGenerator(baseUrl);
+            // Warm up the server and client before measuring
+            generator.run(Math.min(players, 50), 2);
+            generator.run(players, games);
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+        }
+    }
+}
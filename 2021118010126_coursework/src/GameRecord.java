@@ -0,0 +1,109 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+// One archived game: its start and target words and the attempts made, held as word codes
+// Words are decoded only when asked for, so scanning millions of records read by GameRecordCodec.Reader
+// does not build a String per attempt
+public final class GameRecord {
+    private final int startCode;
+    private final int targetCode;
+    private final int[] attemptCodes;
+
+    public GameRecord(int startCode, int targetCode, int[] attemptCodes) {
+        // Precondition: every word is a valid code
+        assert startCode >= 0 && startCode < Lexicon.CODE_SPACE : "Start code out of range";
+        assert targetCode >= 0 && targetCode < Lexicon.CODE_SPACE : "Target code out of range";
+        assert attemptCodes != null : "Attempts cannot be null";
+
+        this.startCode = startCode;
+        this.targetCode = targetCode;
+        this.attemptCodes = attemptCodes.clone();
+    }
+
+    // Builds a record from words; throws IllegalArgumentException if one is not a 4-letter word
+    public static GameRecord of(String startWord, String targetWord, List<String> attempts) {
+        int[] codes = new int[attempts.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = checkedCode(attempts.get(i));
+        }
+        return new GameRecord(checkedCode(startWord), checkedCode(targetWord), codes);
+    }
+
+    // Captures the game a model is playing
+    public static GameRecord of(IModel model) {
+        return of(model.getStartWord(), model.getTargetWord(), model.getAttempts());
+    }
+
+    private static int checkedCode(String word) {
+        int code = Lexicon.encode(word);
+        if (code == Lexicon.NO_CODE) {
+            throw new IllegalArgumentException("Not a 4-letter word: " + word);
+        }
+        return code;
+    }
+
+    public int getStartCode() {
+        return startCode;
+    }
+
+    public int getTargetCode() {
+        return targetCode;
+    }
+
+    public int getAttemptCount() {
+        return attemptCodes.length;
+    }
+
+    public int getAttemptCode(int index) {
+        return attemptCodes[index];
+    }
+
+    public String getStartWord() {
+        return Lexicon.decode(startCode);
+    }
+
+    public String getTargetWord() {
+        return Lexicon.decode(targetCode);
+    }
+
+    // Returns the attempts as words, decoded as they are read
+    public List<String> getAttempts() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return Lexicon.decode(attemptCodes[index]);
+            }
+
+            @Override
+            public int size() {
+                return attemptCodes.length;
+            }
+        };
+    }
+
+    // Checks if the last attempt reached the target
+    public boolean isWon() {
+        return attemptCodes.length > 0 && attemptCodes[attemptCodes.length - 1] == targetCode;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof GameRecord)) {
+            return false;
+        }
+        GameRecord record = (GameRecord) other;
+        return startCode == record.startCode && targetCode == record.targetCode
+                && Arrays.equals(attemptCodes, record.attemptCodes);
+    }
+
+    @Override
+    public int hashCode() {
+        return (startCode * 31 + targetCode) * 31 + Arrays.hashCode(attemptCodes);
+    }
+
+    @Override
+    public String toString() {
+        return getStartWord() + " -> " + getTargetWord() + " " + getAttempts();
+    }
+}
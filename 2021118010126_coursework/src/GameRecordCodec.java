@@ -0,0 +1,430 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+// Compact binary encoding of archived games, read and written as a stream of GameRecords
+// An accepted attempt changes exactly one letter of the word before it (see Model.isDifferByOneLetter),
+// so instead of the word each attempt is stored as that change: 2 bits for the position and 5 for the
+// new letter, 7 bits in all. Start and target are stored as their ids in the lexicon, which for the
+// bundled dictionary fit in two varint bytes. A typical game takes 7-12 bytes, against 30-60 as text.
+//
+// Stream layout:
+//   4 bytes  magic           "WGRC"
+//   byte     version
+//   varint   lexicon size    word ids are only meaningful against the same lexicon
+//   int      fingerprint     CRC32 of the lexicon's word codes, big-endian
+//   records, until the end of the stream:
+//     varint  start id
+//     varint  target id
+//     varint  attempt count
+//     moves   7 bits per attempt, position then letter, most significant bit first,
+//             padded with zero bits to a whole byte so every record starts on a byte boundary
+// Varints are unsigned LEB128: seven bits per byte, low bits first, high bit set on all but the last byte
+public final class GameRecordCodec {
+    static final int MAGIC = 0x57475243;
+    static final int VERSION = 1;
+
+    static final int POSITION_BITS = 2;
+    static final int MOVE_BITS = POSITION_BITS + Lexicon.BITS_PER_LETTER;
+    // Guards the reader against allocating for a corrupt count; no real game comes near it
+    static final int MAX_ATTEMPTS = 1 << 20;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int LETTERS = 26;
+
+    private GameRecordCodec() {
+    }
+
+    // Returns the CRC32 of the lexicon's word codes, which a reader checks against the writer's
+    static int fingerprint(Lexicon lexicon) {
+        CRC32 crc = new CRC32();
+        ByteBuffer chunk = ByteBuffer.allocate(4096 * 4);
+        for (int id = 0; id < lexicon.size(); id++) {
+            if (!chunk.hasRemaining()) {
+                chunk.flip();
+                crc.update(chunk);
+                chunk.clear();
+            }
+            chunk.putInt(lexicon.code(id));
+        }
+        chunk.flip();
+        crc.update(chunk);
+        return (int) crc.getValue();
+    }
+
+    // Returns the position at which two codes differ, or -1 unless they differ at exactly one
+    static int changedPosition(int from, int to) {
+        if (Lexicon.hammingDistance(from, to) != 1) {
+            return -1;
+        }
+        int position = 0;
+        while (Lexicon.letterAt(from, position) == Lexicon.letterAt(to, position)) {
+            position++;
+        }
+        return position;
+    }
+
+    // Starts a stream of records on out, writing the header straight away
+    public static Writer newWriter(OutputStream out, Lexicon lexicon) throws IOException {
+        return new Writer(out, lexicon);
+    }
+
+    // Reads the header of a stream of records, which must have been written against the same lexicon
+    public static Reader newReader(InputStream in, Lexicon lexicon) throws IOException {
+        return new Reader(in, lexicon);
+    }
+
+    public static Writer openWriter(Path file, Lexicon lexicon) throws IOException {
+        return new Writer(Files.newOutputStream(file), lexicon);
+    }
+
+    public static Reader openReader(Path file, Lexicon lexicon) throws IOException {
+        return new Reader(Files.newInputStream(file), lexicon);
+    }
+
+    // Encodes records into its own buffer and hands the stream whole buffers; not thread-safe
+    public static final class Writer implements Closeable, Flushable {
+        private final OutputStream out;
+        private final Lexicon lexicon;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int length;
+        private long recordCount;
+        private long byteCount;
+
+        private Writer(OutputStream out, Lexicon lexicon) throws IOException {
+            // Precondition: there is somewhere to write and a lexicon to number the words
+            assert out != null && lexicon != null : "Stream and lexicon must not be null";
+
+            this.out = out;
+            this.lexicon = lexicon;
+            writeInt(MAGIC);
+            put(VERSION);
+            writeVarint(lexicon.size());
+            writeInt(fingerprint(lexicon));
+        }
+
+        // Appends one game; throws IllegalArgumentException if its start or target is not in the lexicon
+        // or an attempt does not change exactly one letter of the word before it
+        public void write(GameRecord record) throws IOException {
+            int startId = lexicon.idOf(record.getStartCode());
+            int targetId = lexicon.idOf(record.getTargetCode());
+            if (startId < 0 || targetId < 0) {
+                throw new IllegalArgumentException("Start and target must be in the lexicon: " + record);
+            }
+            int count = record.getAttemptCount();
+            if (count > MAX_ATTEMPTS) {
+                throw new IllegalArgumentException("Too many attempts to encode: " + count);
+            }
+
+            // Check every move before writing anything, so a bad record leaves the stream intact
+            int previous = record.getStartCode();
+            for (int i = 0; i < count; i++) {
+                int code = record.getAttemptCode(i);
+                if (changedPosition(previous, code) < 0) {
+                    throw new IllegalArgumentException("Attempt " + (i + 1) + " does not change exactly one letter: "
+                            + record);
+                }
+                previous = code;
+            }
+
+            writeVarint(startId);
+            writeVarint(targetId);
+            writeVarint(count);
+
+            int bits = 0;
+            int pending = 0;
+            previous = record.getStartCode();
+            for (int i = 0; i < count; i++) {
+                int code = record.getAttemptCode(i);
+                int position = changedPosition(previous, code);
+                pending = (pending << MOVE_BITS) | (position << Lexicon.BITS_PER_LETTER)
+                        | Lexicon.letterAt(code, position);
+                bits += MOVE_BITS;
+                while (bits >= 8) {
+                    bits -= 8;
+                    put(pending >>> bits);
+                }
+                pending &= (1 << bits) - 1;
+                previous = code;
+            }
+            if (bits > 0) {
+                put(pending << (8 - bits));
+            }
+            recordCount++;
+        }
+
+        public void write(String startWord, String targetWord, List<String> attempts) throws IOException {
+            write(GameRecord.of(startWord, targetWord, attempts));
+        }
+
+        // Returns the number of records written
+        public long getRecordCount() {
+            return recordCount;
+        }
+
+        // Returns the number of bytes written, header included
+        public long getByteCount() {
+            return byteCount + length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                out.close();
+            }
+        }
+
+        private void drain() throws IOException {
+            if (length > 0) {
+                out.write(buffer, 0, length);
+                byteCount += length;
+                length = 0;
+            }
+        }
+
+        private void put(int value) throws IOException {
+            if (length == buffer.length) {
+                drain();
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        private void writeInt(int value) throws IOException {
+            put(value >>> 24);
+            put(value >>> 16);
+            put(value >>> 8);
+            put(value);
+        }
+
+        private void writeVarint(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                put((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            put(value);
+        }
+    }
+
+    // Decodes records from its own buffer, one at a time; not thread-safe
+    // A stream that ends part way through a record, or holds a move no game could have made, is an IOException
+    public static final class Reader implements Closeable {
+        private final InputStream in;
+        private final Lexicon lexicon;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private long recordCount;
+
+        private Reader(InputStream in, Lexicon lexicon) throws IOException {
+            // Precondition: there is something to read and a lexicon to look the words up in
+            assert in != null && lexicon != null : "Stream and lexicon must not be null";
+
+            this.in = in;
+            this.lexicon = lexicon;
+            try {
+                if (readInt() != MAGIC) {
+                    throw new IOException("Not a game record stream");
+                }
+                int version = next();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported game record version " + version);
+                }
+                if (readVarint() != lexicon.size() || readInt() != fingerprint(lexicon)) {
+                    throw new IOException("Game records were written against a different dictionary");
+                }
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+
+        // Returns the next record, or null at the end of the stream
+        public GameRecord read() throws IOException {
+            if (position == limit && !fill()) {
+                return null;
+            }
+
+            int startCode = wordCode(readVarint());
+            int targetCode = wordCode(readVarint());
+            int count = readVarint();
+            if (count > MAX_ATTEMPTS) {
+                throw new IOException("Corrupt game record: " + count + " attempts");
+            }
+
+            int[] attempts = new int[count];
+            int bits = 0;
+            int pending = 0;
+            int previous = startCode;
+            for (int i = 0; i < count; i++) {
+                while (bits < MOVE_BITS) {
+                    pending = (pending << 8) | next();
+                    bits += 8;
+                }
+                bits -= MOVE_BITS;
+                int move = pending >>> bits;
+                pending &= (1 << bits) - 1;
+
+                int changed = move >>> Lexicon.BITS_PER_LETTER;
+                int letter = move & ((1 << Lexicon.BITS_PER_LETTER) - 1);
+                if (letter >= LETTERS || letter == Lexicon.letterAt(previous, changed)) {
+                    throw new IOException("Corrupt game record: move " + (i + 1) + " changes nothing");
+                }
+                previous = Lexicon.withLetter(previous, changed, letter);
+                attempts[i] = previous;
+            }
+            recordCount++;
+            return new GameRecord(startCode, targetCode, attempts);
+        }
+
+        // Returns the number of records read
+        public long getRecordCount() {
+            return recordCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private int wordCode(int id) throws IOException {
+            if (id >= lexicon.size()) {
+                throw new IOException("Corrupt game record: word id " + id);
+            }
+            return lexicon.code(id);
+        }
+
+        private boolean fill() throws IOException {
+            int read;
+            do {
+                read = in.read(buffer);
+            } while (read == 0);
+            if (read < 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+
+        private int next() throws IOException {
+            if (position == limit && !fill()) {
+                throw new EOFException("Game record stream ends part way through a record");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        private int readInt() throws IOException {
+            return next() << 24 | next() << 16 | next() << 8 | next();
+        }
+
+        private int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = next();
+                // The fifth byte may only carry the top bit of a non-negative int
+                if (shift == 28 && (b & 0xF8) != 0) {
+                    throw new IOException("Corrupt game record: varint out of range");
+                }
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+    }
+
+    // Encodes random games over the bundled dictionary, reads them back and compares the size with
+    // the same games as lines of text and as serialized lists of Strings
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "bench.games");
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        Lexicon lexicon = LexiconCache.shared("dictionary.txt");
+        WordGraph graph = lexicon.graph();
+        Random random = new Random(42);
+
+        List<GameRecord> records = new ArrayList<>(games);
+        long attemptTotal = 0;
+        for (int i = 0; i < games; i++) {
+            int id = random.nextInt(lexicon.size());
+            int start = lexicon.code(id);
+            int target = lexicon.code(random.nextInt(lexicon.size()));
+            int[] attempts = new int[1 + random.nextInt(10)];
+            int length = 0;
+            while (length < attempts.length && graph.degree(id) > 0) {
+                id = graph.target(graph.edgeStart(id) + random.nextInt(graph.degree(id)));
+                attempts[length++] = lexicon.code(id);
+            }
+            records.add(new GameRecord(start, target, Arrays.copyOf(attempts, length)));
+            attemptTotal += length;
+        }
+
+        long begin = System.nanoTime();
+        long encodedBytes;
+        try (Writer writer = openWriter(path, lexicon)) {
+            for (GameRecord record : records) {
+                writer.write(record);
+            }
+            encodedBytes = writer.getByteCount();
+        }
+        long written = System.nanoTime() - begin;
+
+        begin = System.nanoTime();
+        long matched = 0;
+        try (Reader reader = openReader(path, lexicon)) {
+            GameRecord record;
+            while ((record = reader.read()) != null) {
+                if (record.equals(records.get((int) reader.getRecordCount() - 1))) {
+                    matched++;
+                }
+            }
+        }
+        long read = System.nanoTime() - begin;
+
+        long textBytes = 0;
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream objects = new ObjectOutputStream(new BufferedOutputStream(serialized))) {
+            for (GameRecord record : records) {
+                String line = record.getStartWord() + " " + record.getTargetWord() + " "
+                        + String.join(" ", record.getAttempts()) + "\n";
+                textBytes += line.getBytes(StandardCharsets.UTF_8).length;
+                objects.writeObject(new ArrayList<>(record.getAttempts()));
+                objects.writeObject(record.getStartWord());
+                objects.writeObject(record.getTargetWord());
+                objects.reset();
+            }
+        }
+
+        System.out.printf("%,d games, %,d attempts: %,d bytes (%.2f per game, %.2f bits per attempt)%n",
+                games, attemptTotal, encodedBytes, (double) encodedBytes / games,
+                8.0 * encodedBytes / Math.max(1, attemptTotal));
+        System.out.printf("written in %.1f ms (%,.0f games/s), read in %.1f ms (%,.0f games/s), %,d matched%n",
+                written / 1e6, games / (written / 1e9), read / 1e6, games / (read / 1e9), matched);
+        System.out.printf("text: %,d bytes (%.1fx), serialized Strings: %,d bytes (%.1fx)%n",
+                textBytes, (double) textBytes / encodedBytes, serialized.size(),
+                (double) serialized.size() / encodedBytes);
+    }
+}
@@ -0,0 +1,254 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// HTTP/JSON front end for a GameEngine on the JDK's built-in server, keyed by session id
+//
+//   POST   /games                   new game; optional ?difficulty=N or ?start=word&target=word
+//   GET    /games/{id}              current game
+//   POST   /games/{id}/submit?word= submit a word; "accepted" says if it was valid
+//   GET    /games/{id}/feedback     packed feedback of every attempt as G/Y/X strings
+//   POST   /games/{id}/reset        clear the attempts
+//   POST   /games/{id}/new          new game in the same session; same options as POST /games
+//   GET    /games/{id}/hint         next optimal word, or null
+//   DELETE /games/{id}              close the session
+//
+// Every request runs on its own virtual thread when the JDK provides them, otherwise on a shared pool
+public final class GameServer {
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final String PREFIX = "/games";
+    // Pending connections queued by the OS, sized for bursts of thousands of players connecting at once
+    private static final int BACKLOG = 4096;
+
+    private final GameEngine engine;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public GameServer(GameEngine engine, InetSocketAddress address) throws IOException {
+        this.engine = engine;
+        this.executor = requestExecutor();
+        this.server = HttpServer.create(address, BACKLOG);
+        server.createContext(PREFIX, this::handle);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Stops accepting requests and waits up to the given number of seconds for running ones
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    // Returns the port actually bound, useful when the server was created on port 0
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // One virtual thread per request where available (JDK 21+); found by reflection so the server also
+    // builds and runs on older JDKs, where a cached pool of platform threads is used instead
+    static ExecutorService requestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            // The details stay in the server's log; the client learns only that the request failed
+            System.err.println("Error handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + ": " + e);
+            send(exchange, 500, error("Internal error"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] parts = exchange.getRequestURI().getPath().substring(PREFIX.length()).split("/");
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        // parts[0] is the empty string before the first slash, if any
+        if (parts.length <= 1) {
+            if (!method.equals("POST")) {
+                send(exchange, 405, error("Use POST to start a game"));
+                return;
+            }
+            send(exchange, 201, state(createSession(query)));
+            return;
+        }
+
+        GameSession session;
+        try {
+            session = engine.getSession(Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            session = null;
+        }
+        if (session == null) {
+            send(exchange, 404, error("No such game: " + parts[1]));
+            return;
+        }
+
+        String action = parts.length > 2 ? parts[2] : "";
+        String expected = action.isEmpty() || action.equals("feedback") || action.equals("hint") ? "GET" : "POST";
+        if (action.isEmpty() && method.equals("DELETE")) {
+            engine.closeSession(session.getId());
+            send(exchange, 200, "{\"closed\":" + session.getId() + "}");
+            return;
+        }
+        if (!method.equals(expected)) {
+            send(exchange, 405, error("Use " + expected + " for " + exchange.getRequestURI().getPath()));
+            return;
+        }
+
+        switch (action) {
+            case "":
+                send(exchange, 200, state(session));
+                break;
+            case "submit":
+                boolean accepted = session.submitWord(query.getOrDefault("word", ""));
+                send(exchange, 200, "{\"accepted\":" + accepted + ",\"game\":" + state(session) + "}");
+                break;
+            case "feedback":
+                send(exchange, 200, "{\"feedback\":" + feedback(session.getState()) + "}");
+                break;
+            case "reset":
+                session.resetGame();
+                send(exchange, 200, state(session));
+                break;
+            case "new":
+                startGame(session, query);
+                send(exchange, 200, state(session));
+                break;
+            case "hint":
+                String hint = session.getHint();
+                send(exchange, 200, "{\"hint\":" + (hint == null ? "null" : quote(hint)) + "}");
+                break;
+            default:
+                send(exchange, 404, error("Unknown action: " + action));
+        }
+    }
+
+    // Opens a session with the game the new-game options ask for, so no other game is generated first
+    private GameSession createSession(Map<String, String> query) {
+        if (query.containsKey("difficulty")) {
+            return engine.createSession(Integer.parseInt(query.get("difficulty")));
+        } else if (query.containsKey("start") || query.containsKey("target")) {
+            return engine.createSession(query.get("start"), query.get("target"));
+        } else {
+            return engine.createSession();
+        }
+    }
+
+    // Applies the new-game options to an open session: a difficulty, two given words, or a random game
+    private void startGame(GameSession session, Map<String, String> query) {
+        if (query.containsKey("difficulty")) {
+            session.newGame(Integer.parseInt(query.get("difficulty")));
+        } else if (query.containsKey("start") || query.containsKey("target")) {
+            session.newGame(query.get("start"), query.get("target"));
+        } else {
+            session.newGame();
+        }
+    }
+
+    private static String state(GameSession session) {
+        GameState state = session.getState();
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"id\":").append(session.getId())
+                .append(",\"start\":").append(quote(state.getStartWord()))
+                .append(",\"target\":").append(quote(state.getTargetWord()))
+                .append(",\"attempts\":[");
+        for (int i = 0; i < state.getAttemptCount(); i++) {
+            json.append(i == 0 ? "" : ",").append(quote(state.attempt(i)));
+        }
+        return json.append("],\"feedback\":").append(feedback(state))
+                .append(",\"won\":").append(state.hasWon()).append('}').toString();
+    }
+
+    // Renders each attempt's packed feedback as G (correct), Y (wrong position) or X (not in word)
+    private static String feedback(GameState state) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < state.getAttemptCount(); i++) {
+            int packed = state.feedback(i);
+            json.append(i == 0 ? "\"" : ",\"");
+            for (int j = 0; j < Lexicon.WORD_LENGTH; j++) {
+                int letterState = Feedback.stateAt(packed, j);
+                json.append(letterState == Feedback.CORRECT ? 'G' : letterState == Feedback.PRESENT ? 'Y' : 'X');
+            }
+            json.append('"');
+        }
+        return json.append(']').toString();
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(String.valueOf(message)) + "}";
+    }
+
+    private static String quote(String text) {
+        StringBuilder json = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Usage: java GameServer [port] [dictionary.txt]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String path = args.length > 1 ? args[1] : "dictionary.txt";
+
+        GameServer server = new GameServer(new GameEngine(LexiconCache.shared(path)), new InetSocketAddress(port));
+        server.start();
+        System.out.println("Weaver server listening on port " + server.getPort());
+    }
+}
@@ -0,0 +1,82 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class GameServerTest {
+
+    private GameEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new GameEngine(LexiconCache.shared("dictionary.txt"));
+    }
+
+    /**
+     * Scenario 1: Test the HTTP front end
+     *
+     * This test verifies:
+     * 1. a game started over HTTP can be played to the target with hint and submit requests
+     * 2. invalid words, unknown games and impossible difficulties are reported, and open no session
+     * 3. a game of a requested difficulty is opened with that difficulty
+     * 4. closed games are gone from the engine
+     */
+    @Test
+    public void testHttpServer() throws Exception {
+        GameServer server = new GameServer(engine, new InetSocketAddress("localhost", 0));
+        server.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://localhost:" + server.getPort() + "/games";
+
+            HttpResponse<String> created = request(client, "POST", base + "?start=sale&target=opal");
+            assertEquals(201, created.statusCode());
+            Matcher id = Pattern.compile("\"id\":(\\d+)").matcher(created.body());
+            assertTrue(id.find());
+            String game = base + "/" + id.group(1);
+
+            assertTrue(request(client, "POST", game + "/submit?word=xxxx").body().startsWith("{\"accepted\":false"));
+            Pattern hint = Pattern.compile("\"hint\":\"([a-z]+)\"");
+            for (Matcher next = hint.matcher(request(client, "GET", game + "/hint").body()); next.find();
+                    next = hint.matcher(request(client, "GET", game + "/hint").body())) {
+                assertTrue(request(client, "POST", game + "/submit?word=" + next.group(1)).body().startsWith("{\"accepted\":true"));
+            }
+            assertTrue(request(client, "GET", game).body().endsWith("\"won\":true}"));
+            assertTrue(request(client, "GET", game + "/feedback").body().endsWith("\"GGGG\"]}"));
+
+            assertEquals(404, request(client, "GET", base + "/999999").statusCode());
+            assertEquals(400, request(client, "POST", base + "?difficulty=250").statusCode());
+            assertEquals(1, engine.sessionCount());
+
+            HttpResponse<String> hard = request(client, "POST", base + "?difficulty=4");
+            assertEquals(201, hard.statusCode());
+            Matcher hardId = Pattern.compile("\"id\":(\\d+)").matcher(hard.body());
+            assertTrue(hardId.find());
+            GameState hardGame = engine.getSession(Long.parseLong(hardId.group(1))).getState();
+            Lexicon lexicon = engine.getLexicon();
+            assertEquals(4, lexicon.distances().distance(lexicon.idOf(hardGame.getStartCode()), lexicon.idOf(hardGame.getTargetCode())));
+            assertEquals(200, request(client, "DELETE", base + "/" + hardId.group(1)).statusCode());
+            assertEquals(405, request(client, "GET", game + "/reset").statusCode());
+
+            assertEquals(200, request(client, "DELETE", game).statusCode());
+            assertNull(engine.getSession(Long.parseLong(id.group(1))));
+            assertEquals(0, engine.sessionCount());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpResponse<String> request(HttpClient client, String method, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,82 @@
+import java.util.Collections;
+
+// One player's game inside a GameEngine, safe to drive from any thread
+// The game is played by a Model of its own, so a session follows exactly the rules of the CLI, the GUI
+// and GameLineServer. A Model is mutable and used from one thread at a time, so every change holds the
+// session's own lock. The locks are striped one per session: operations on different sessions never
+// contend, and only threads racing on the same player's game wait, for the microsecond a move takes.
+// After each change the session publishes an immutable GameState, which readers take without locking
+public final class GameSession {
+    private final long id;
+    private final Lexicon lexicon;  // Shared and read-only
+    private final Model model;      // Guarded by this
+    private volatile GameState state;
+
+    GameSession(long id, Lexicon lexicon, Model model) {
+        this.id = id;
+        this.lexicon = lexicon;
+        this.model = model;
+        this.state = GameState.of(model);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    // Returns the current game; the snapshot never changes after it is returned
+    public GameState getState() {
+        return state;
+    }
+
+    // Adds a word to the attempts if the model accepts it, in the dictionary and one letter from the current
+    // word, and the game is not yet won; a server game ends at the target, while the Model leaves that to
+    // its front end
+    public synchronized boolean submitWord(String word) {
+        // The model's preconditions, checked here because the word comes from a client
+        if (word == null || word.length() != Lexicon.WORD_LENGTH) {
+            return false;
+        }
+        if (model.hasWon()) {
+            return false;
+        }
+        if (!model.submitWord(word)) {
+            return false;
+        }
+        int index = model.getCurrentAttempt() - 1;
+        state = state.withAttempt(Lexicon.encode(word), model.getAttemptFeedback(index));
+        return true;
+    }
+
+    // Clears the attempts, keeping the same start and target words
+    public synchronized void resetGame() {
+        model.resetGame();
+        state = GameState.of(model);
+    }
+
+    // Starts a game between two random connected words
+    public synchronized void newGame() {
+        // Like the CLI's 'new', which turns random words on and starts a game in one step
+        model.setRandomWords(true);
+        state = GameState.of(model);
+    }
+
+    // Starts a game between two given words
+    // Throws IllegalArgumentException if either word is not in the dictionary or they are the same
+    public synchronized void newGame(String startWord, String targetWord) {
+        GameEngine.checkWords(lexicon, startWord, targetWord);
+        model.restoreGame(startWord.toLowerCase(), targetWord.toLowerCase(), Collections.emptyList());
+        state = GameState.of(model);
+    }
+
+    // Starts a game whose optimal solution takes exactly the given number of moves
+    // Throws IllegalArgumentException if no two words are that far apart
+    public synchronized void newGame(int difficulty) {
+        model.newGame(difficulty);
+        state = GameState.of(model);
+    }
+
+    // Returns the next word on an optimal ladder from the current word, or null if there is none
+    public synchronized String getHint() {
+        return model.getHint();
+    }
+}
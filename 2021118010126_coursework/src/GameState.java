@@ -0,0 +1,87 @@
+import java.util.Arrays;
+import java.util.List;
+
+// Immutable snapshot of one game: start and target word codes plus every attempt with its packed Feedback
+// Taken from a session's Model after each change, so readers on any thread always see a consistent game
+// without locking; the rules themselves live only in Model
+public final class GameState {
+    private final int startCode;
+    private final int targetCode;
+    private final int[] attemptCodes;  // Never modified once the state is published
+    private final int[] feedback;      // Packed Feedback of each attempt
+
+    private GameState(int startCode, int targetCode, int[] attemptCodes, int[] feedback) {
+        this.startCode = startCode;
+        this.targetCode = targetCode;
+        this.attemptCodes = attemptCodes;
+        this.feedback = feedback;
+    }
+
+    // Returns a snapshot of the game a model is playing
+    public static GameState of(IModel model) {
+        List<String> attempts = model.getAttempts();
+        int[] codes = new int[attempts.size()];
+        int[] packed = new int[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = Lexicon.encode(attempts.get(i));
+            packed[i] = model.getAttemptFeedback(i);
+        }
+        return new GameState(Lexicon.encode(model.getStartWord()), Lexicon.encode(model.getTargetWord()), codes, packed);
+    }
+
+    // Returns this snapshot with one more attempt, as the model recorded it
+    GameState withAttempt(int code, int packedFeedback) {
+        int count = attemptCodes.length;
+        int[] codes = Arrays.copyOf(attemptCodes, count + 1);
+        int[] packed = Arrays.copyOf(feedback, count + 1);
+        codes[count] = code;
+        packed[count] = packedFeedback;
+        return new GameState(startCode, targetCode, codes, packed);
+    }
+
+    public int getStartCode() {
+        return startCode;
+    }
+
+    public int getTargetCode() {
+        return targetCode;
+    }
+
+    public String getStartWord() {
+        return Lexicon.decode(startCode);
+    }
+
+    public String getTargetWord() {
+        return Lexicon.decode(targetCode);
+    }
+
+    // Returns the number of attempts made
+    public int getAttemptCount() {
+        return attemptCodes.length;
+    }
+
+    // Returns the code of an attempt
+    public int attemptCode(int index) {
+        return attemptCodes[index];
+    }
+
+    // Returns an attempt as a lower-case word
+    public String attempt(int index) {
+        return Lexicon.decode(attemptCodes[index]);
+    }
+
+    // Returns the packed Feedback of an attempt
+    public int feedback(int index) {
+        return feedback[index];
+    }
+
+    // Returns the word the next attempt must differ from by one letter
+    public int currentCode() {
+        return attemptCodes.length == 0 ? startCode : attemptCodes[attemptCodes.length - 1];
+    }
+
+    // Checks if the last attempt is the target word
+    public boolean hasWon() {
+        return attemptCodes.length > 0 && attemptCodes[attemptCodes.length - 1] == targetCode;
+    }
+}
@@ -0,0 +1,51 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Shares DistanceMaps between every game over one Lexicon that has the same target word
+// A target's map is built by the first session that asks for it; concurrent callers wait for that
+// single search instead of repeating it. The oldest targets are dropped once the cache is full
+public final class HintService {
+    // Each map costs about 6 bytes per word, so this bounds the cache to a few MB for dictionary.txt
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final Lexicon lexicon;
+    private final int capacity;
+    private final ConcurrentHashMap<Integer, DistanceMap> maps = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Integer> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    public HintService(Lexicon lexicon, int capacity) {
+        // Precondition: the cache can hold at least one map
+        assert capacity > 0 : "Capacity must be positive";
+
+        this.lexicon = lexicon;
+        this.capacity = capacity;
+    }
+
+    // Returns the distance map for a target word id, building it on first use
+    public DistanceMap distancesTo(int target) {
+        DistanceMap map = maps.get(target);
+        if (map != null) {
+            return map;
+        }
+
+        map = maps.computeIfAbsent(target, id -> {
+            insertionOrder.add(id);
+            return DistanceMap.build(lexicon.graph(), id);
+        });
+
+        // Evict outside computeIfAbsent, which must not modify the map it runs in
+        while (maps.size() > capacity) {
+            Integer oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            maps.remove(oldest);
+        }
+        return map;
+    }
+
+    // Returns the number of targets currently cached
+    public int size() {
+        return maps.size();
+    }
+}
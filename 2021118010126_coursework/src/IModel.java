@@ -1,4 +1,6 @@
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 public interface IModel {
     // Returns the starting word that player must transform
@@ -25,6 +27,19 @@ public interface IModel {
     // Starts a new game with different words
     void newGame();
 
+    // Starts a new game whose optimal solution takes exactly the given number of moves
+    // Throws IllegalArgumentException if no two words are that far apart
+    void newGame(int difficulty);
+
+    // Starts the published puzzle for a date, falling back to the default words if there is none
+    void newGame(LocalDate date);
+
+    // Reseeds the random word selection so that a sequence of games can be reproduced
+    void setRandomSeed(long seed);
+
+    // Returns the bus on which changes to this game are published
+    GameEventBus getEventBus();
+
     // Checks if error messages are enabled
     boolean isShowErrorMessages();
 
@@ -46,9 +61,37 @@ public interface IModel {
     // Finds optimal solution path from start to target word
     List<String> findPath();
 
+    // Returns a search for the current game's optimal path that can run on another thread
+    // The task keeps the words of the game it was made for, and stops with a CancellationException if its thread is interrupted
+    Callable<List<String>> findPathTask();
+
+    // Returns the name of the path finder used by findPath (bfs, bidirectional or astar)
+    String getPathFinder();
+
+    // Selects the path finder used by findPath; throws IllegalArgumentException for an unknown name
+    void setPathFinder(String name);
+
+    // Returns statistics for the last findPath call, or null if there has been none since the finder changed
+    PathStats getLastPathStats();
+
+    // Returns the number of moves from the current word to the target word, or -1 if it cannot be reached
+    int getDistanceToTarget();
+
+    // Returns the next word on an optimal path from the current word, or null if there is none
+    String getHint();
+
+    // Returns the optimal words still to play from the current word, ending with the target word
+    List<String> getRemainingPath();
+
+    // Returns the number of moves between any two dictionary words, or -1 if there is no ladder between them
+    int getDistance(String word1, String word2);
+
     // Returns list of all submitted words
     List<String> getAttempts();
 
     // Returns feedback array for word comparison (1=correct position, 0=wrong position, -1=not in word)
     int[] getFeedback(String word);
+
+    // Returns the packed Feedback stored with an attempt when it was submitted
+    int getAttemptFeedback(int index);
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Log-linear latency histogram in the style of HdrHistogram, recording nanoseconds into fixed buckets
+// Every power of two is split into SUB_BUCKETS equal buckets, so a reported value is within 1/16 (6.25%)
+// of the true one at any magnitude, and recording is a shift, a leading-zero count and two stores.
+// Built for one recording thread at a time: writes are ordered stores rather than atomic read-modify-writes,
+// which keeps recording free of locked instructions. Any thread may read; a reader can see a count that
+// has not yet caught up with the latest record, which is fine for monitoring
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values below SUB_BUCKETS get one bucket each; each later power of two adds SUB_BUCKETS more
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    // Bucket counts, then the total count, sum and maximum in three extra slots
+    private static final int COUNT = BUCKETS;
+    private static final int SUM = BUCKETS + 1;
+    private static final int MAX = BUCKETS + 2;
+
+    private final AtomicLongArray slots = new AtomicLongArray(BUCKETS + 3);
+
+    // Returns the bucket that holds a non-negative value
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(0, value);
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // Returns the largest value that falls into a bucket
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    // Records one latency in nanoseconds
+    public void record(long nanos) {
+        int bucket = bucketOf(nanos);
+        slots.lazySet(bucket, slots.get(bucket) + 1);
+        slots.lazySet(COUNT, slots.get(COUNT) + 1);
+        slots.lazySet(SUM, slots.get(SUM) + nanos);
+        if (nanos > slots.get(MAX)) {
+            slots.lazySet(MAX, nanos);
+        }
+    }
+
+    public long getCount() {
+        return slots.get(COUNT);
+    }
+
+    // Returns the mean latency in nanoseconds, or 0 if nothing has been recorded
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) slots.get(SUM) / count;
+    }
+
+    public long getMax() {
+        return slots.get(MAX);
+    }
+
+    // Returns the latency at or below which the given fraction of calls completed, e.g. 0.99 for p99
+    // The answer is the top of the bucket holding that call, capped at the largest value recorded
+    public long getPercentile(double fraction) {
+        // Precondition: fraction is a proportion
+        assert fraction >= 0 && fraction <= 1 : "Fraction must be between 0 and 1";
+
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += slots.get(bucket);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(bucket), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    // Clears every bucket; only call while nothing is recording
+    public void reset() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+
+// Immutable set of 4-letter words, each packed into an int at 5 bits per letter
+// Membership is a single bit lookup, so contains() is O(1) and allocation-free
+// The tables live either on the heap or in a memory-mapped snapshot (see LexiconSnapshot)
+// Instances are immutable and safe to share between threads (see LexiconCache)
+public final class Lexicon {
+    public static final int WORD_LENGTH = 4;
+    public static final int BITS_PER_LETTER = 5;
+    // Number of distinct codes a word can pack into (2^20)
+    public static final int CODE_SPACE = 1 << (BITS_PER_LETTER * WORD_LENGTH);
+    // Returned by encode() for anything that is not a 4-letter a-z word
+    public static final int NO_CODE = -1;
+
+    private static final int LETTER_MASK = (1 << BITS_PER_LETTER) - 1;
+
+    // Number of longs in the membership bitset
+    static final int BITSET_LONGS = CODE_SPACE >>> 6;
+
+    private final LongBuffer bits;  // Membership bitset indexed by word code
+    private final IntBuffer codes;  // Sorted word codes, the index of a code is its word id
+    private final int size;
+    private final WordGraph graph;  // One-letter-difference graph over the word ids
+    private final WordComponents components;  // Connected components of the graph
+    private volatile HintService hints;  // Created on first use
+    private volatile PathCache paths;    // Created on first use
+    private volatile DistanceTable distances;  // Created on first use
+    private volatile PuzzleGenerator puzzles;  // Created on first use
+    private final Path source;           // Text dictionary this was loaded from, or null
+
+    // Wraps existing tables; codes must be sorted and unique, bits must match codes
+    // The word graph is built here unless a precomputed one is supplied
+    Lexicon(IntBuffer codes, LongBuffer bits, WordGraph graph, Path source) {
+        assert bits.limit() == BITSET_LONGS : "Bitset must cover the whole code space";
+        this.codes = codes;
+        this.bits = bits;
+        this.size = codes.limit();
+        this.source = source;
+        this.graph = graph != null ? graph : WordGraph.build(this);
+        assert this.graph.size() == size : "Word graph must have one vertex per word";
+        this.components = WordComponents.build(this.graph);
+    }
+
+    private static Lexicon fromSortedCodes(int[] sortedCodes, Path source) {
+        long[] bits = new long[BITSET_LONGS];
+        for (int code : sortedCodes) {
+            bits[code >>> 6] |= 1L << code;
+        }
+        return new Lexicon(IntBuffer.wrap(sortedCodes), LongBuffer.wrap(bits), null, source);
+    }
+
+    // Builds a lexicon from the given words, ignoring anything that is not 4 letters a-z
+    public static Lexicon fromWords(Collection<String> words) {
+        int[] buffer = new int[words.size()];
+        int count = 0;
+        for (String word : words) {
+            int code = encode(word);
+            if (code != NO_CODE) {
+                buffer[count++] = code;
+            }
+        }
+        return fromCodes(buffer, count, null);
+    }
+
+    // Builds a lexicon from the first count entries of codes (duplicates are removed)
+    static Lexicon fromCodes(int[] codes, int count, Path source) {
+        int[] sorted = Arrays.copyOf(codes, count);
+        Arrays.sort(sorted);
+
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return fromSortedCodes(unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique), source);
+    }
+
+    // Loads a text dictionary through its binary snapshot, rebuilding the snapshot when stale
+    // Returns an empty lexicon if neither the snapshot nor the text file can be read
+    public static Lexicon load(String path) {
+        try {
+            return LexiconSnapshot.load(path);
+        } catch (IOException e) {
+            System.err.println("Error loading dictionary: " + e.getMessage());
+            return fromCodes(new int[0], 0, null);
+        }
+    }
+
+    // Parses a text dictionary with one word per line, keeping only 4-letter words
+    public static Lexicon readText(String path) throws IOException {
+        int[] buffer = new int[1024];
+        int count = 0;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Only add 4-letter words to the dictionary
+                int code = line.length() == WORD_LENGTH ? encode(line) : NO_CODE;
+                if (code == NO_CODE) {
+                    continue;
+                }
+                if (count == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, count * 2);
+                }
+                buffer[count++] = code;
+            }
+        }
+
+        return fromCodes(buffer, count, Paths.get(path));
+    }
+
+    // Packs a 4-letter word into its code, folding upper case; returns NO_CODE if it is not a word
+    public static int encode(CharSequence word) {
+        if (word == null || word.length() != WORD_LENGTH) {
+            return NO_CODE;
+        }
+
+        int code = 0;
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            int letter = letterIndex(word.charAt(i));
+            if (letter < 0) {
+                return NO_CODE;
+            }
+            code = (code << BITS_PER_LETTER) | letter;
+        }
+        return code;
+    }
+
+    // Unpacks a code back into its lower-case word
+    public static String decode(int code) {
+        assert code >= 0 && code < CODE_SPACE : "Code out of range";
+
+        char[] letters = new char[WORD_LENGTH];
+        for (int i = WORD_LENGTH - 1; i >= 0; i--) {
+            letters[i] = (char) ('a' + (code & LETTER_MASK));
+            code >>>= BITS_PER_LETTER;
+        }
+        return new String(letters);
+    }
+
+    // Returns the letter (0-25) at the given position of a code
+    public static int letterAt(int code, int position) {
+        return (code >>> (BITS_PER_LETTER * (WORD_LENGTH - 1 - position))) & LETTER_MASK;
+    }
+
+    // Returns the code with the letter at the given position replaced
+    public static int withLetter(int code, int position, int letter) {
+        int shift = BITS_PER_LETTER * (WORD_LENGTH - 1 - position);
+        return (code & ~(LETTER_MASK << shift)) | (letter << shift);
+    }
+
+    // Returns the number of positions at which two codes have different letters
+    public static int hammingDistance(int code1, int code2) {
+        int difference = code1 ^ code2;
+        int distance = 0;
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            if ((difference & LETTER_MASK) != 0) {
+                distance++;
+            }
+            difference >>>= BITS_PER_LETTER;
+        }
+        return distance;
+    }
+
+    private static int letterIndex(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        return -1;
+    }
+
+    // Checks if the word is in the lexicon
+    public boolean contains(CharSequence word) {
+        return containsCode(encode(word));
+    }
+
+    // Checks if the packed word is in the lexicon
+    public boolean containsCode(int code) {
+        return code >= 0 && code < CODE_SPACE && (bits.get(code >>> 6) & (1L << code)) != 0;
+    }
+
+    // Returns the number of words
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Returns the code of the word with the given id
+    public int code(int id) {
+        return codes.get(id);
+    }
+
+    // Returns the word with the given id
+    public String word(int id) {
+        return decode(codes.get(id));
+    }
+
+    // Returns the id of the packed word, or -1 if it is not in the lexicon
+    public int idOf(int code) {
+        if (!containsCode(code)) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midCode = codes.get(mid);
+            if (midCode < code) {
+                low = mid + 1;
+            } else if (midCode > code) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Returns the one-letter-difference graph, whose vertex ids are the word ids
+    public WordGraph graph() {
+        return graph;
+    }
+
+    // Returns the connected components of the word graph
+    public WordComponents components() {
+        return components;
+    }
+
+    // Returns the all-pairs distance table, mapping or generating it on first use
+    // A lexicon loaded from a file keeps its table next to that file; others build one in memory
+    public DistanceTable distances() {
+        DistanceTable table = distances;
+        if (table == null) {
+            synchronized (this) {
+                table = distances;
+                if (table == null) {
+                    table = source != null
+                            ? DistanceTable.open(source, this)
+                            : DistanceTable.generate(this, Runtime.getRuntime().availableProcessors());
+                    distances = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    // Returns the distance table if distances() has already loaded it, or null; never loads one itself
+    DistanceTable loadedDistances() {
+        return distances;
+    }
+
+    // Returns the puzzle generator over the distance table, bucketing word pairs on first use
+    public PuzzleGenerator puzzles() {
+        PuzzleGenerator generator = puzzles;
+        if (generator == null) {
+            synchronized (this) {
+                generator = puzzles;
+                if (generator == null) {
+                    generator = PuzzleGenerator.build(this, distances());
+                    puzzles = generator;
+                }
+            }
+        }
+        return generator;
+    }
+
+    // Returns the hint service shared by every game over this lexicon
+    public HintService hints() {
+        HintService service = hints;
+        if (service == null) {
+            synchronized (this) {
+                service = hints;
+                if (service == null) {
+                    service = new HintService(this, HintService.DEFAULT_CAPACITY);
+                    hints = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    // Returns the cache of solved paths shared by every game over this lexicon
+    public PathCache pathCache() {
+        PathCache cache = paths;
+        if (cache == null) {
+            synchronized (this) {
+                cache = paths;
+                if (cache == null) {
+                    cache = new PathCache(PathCache.DEFAULT_CAPACITY);
+                    paths = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    // Read-only views of the backing tables, used when writing a snapshot
+    IntBuffer codeTable() {
+        return codes.asReadOnlyBuffer();
+    }
+
+    LongBuffer bitTable() {
+        return bits.asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,76 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Process-wide cache of loaded lexicons, keyed by dictionary path and content checksum
+// Lexicons are immutable, so one instance can be injected into any number of Models on any thread
+public final class LexiconCache {
+    private static final ConcurrentHashMap<Path, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private LexiconCache() {
+    }
+
+    // A loaded lexicon together with the state of the file it came from
+    private static final class Entry {
+        final long size;
+        final long modified;
+        final long checksum;
+        final Lexicon lexicon;
+
+        Entry(long size, long modified, long checksum, Lexicon lexicon) {
+            this.size = size;
+            this.modified = modified;
+            this.checksum = checksum;
+            this.lexicon = lexicon;
+        }
+    }
+
+    // Returns the shared lexicon for a text dictionary, loading it only on first use or after the file changes
+    // Unchanged size and timestamp skip hashing; otherwise the file is re-hashed before deciding to reload
+    public static Lexicon shared(String path) {
+        Path key = Paths.get(path).toAbsolutePath().normalize();
+        Entry current = ENTRIES.get(key);
+        if (current != null && isUnchanged(current, key)) {
+            return current.lexicon;
+        }
+        return ENTRIES.compute(key, (k, entry) -> refresh(k, entry)).lexicon;
+    }
+
+    // Drops every cached lexicon, so the next shared() call reloads from disk
+    public static void clear() {
+        ENTRIES.clear();
+    }
+
+    private static boolean isUnchanged(Entry entry, Path path) {
+        try {
+            return entry.size == Files.size(path)
+                    && entry.modified == Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            // The file went away; keep serving what was loaded
+            return true;
+        }
+    }
+
+    // Runs under the map's lock for this path, so concurrent callers load a changed file only once
+    private static Entry refresh(Path path, Entry entry) {
+        if (entry != null && isUnchanged(entry, path)) {
+            return entry;
+        }
+
+        try {
+            long size = Files.size(path);
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            long checksum = LexiconSnapshot.checksum(path);
+            if (entry != null && entry.size == size && entry.checksum == checksum) {
+                // Touched but not edited: keep the loaded lexicon
+                return new Entry(size, modified, checksum, entry.lexicon);
+            }
+            return new Entry(size, modified, checksum, Lexicon.load(path.toString()));
+        } catch (IOException e) {
+            // No readable text file; Lexicon.load still tries the snapshot before giving up
+            return new Entry(-1, -1, -1, Lexicon.load(path.toString()));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Versioned, checksummed binary image of a Lexicon that is memory-mapped on load
+// Mapping the file lets every process on a host share one page-cache copy of the tables
+//
+// Layout (big-endian):
+//   int  magic              "WLEX"
+//   int  version
+//   long source length      size of the text file the snapshot was compiled from
+//   long source modified    last-modified time of that file in milliseconds
+//   long source checksum    CRC32 of the text file contents
+//   int  word count
+//   int  payload checksum   CRC32 of everything after the header
+//   int  edge count         entries in the word graph's edge array
+//   int  reserved
+//   int[word count]         sorted word codes, padded to a multiple of 8 bytes
+//   long[BITSET_LONGS]      membership bitset
+//   int[word count + 1]     word graph row offsets
+//   int[edge count]         word graph edges
+public final class LexiconSnapshot {
+    static final int MAGIC = 0x574C4558;
+    // Version 2 added the word graph
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 48;
+
+    private LexiconSnapshot() {
+    }
+
+    // Loads the lexicon for a text dictionary, mapping its snapshot when it is current
+    // Falls back to parsing the text file and rebuilding the snapshot if it is missing, stale or corrupt
+    public static Lexicon load(String textPath) throws IOException {
+        DictionaryLoadEvent event = new DictionaryLoadEvent();
+        event.begin();
+        Path text = Paths.get(textPath);
+        Path snapshot = snapshotPath(text);
+        boolean hasText = Files.isRegularFile(text);
+
+        if (Files.isRegularFile(snapshot)) {
+            // Without the text file there is nothing to compare against, so trust the snapshot
+            Lexicon lexicon = map(snapshot, hasText ? text : null);
+            if (lexicon != null) {
+                event.report(textPath, lexicon, true);
+                return lexicon;
+            }
+        }
+
+        Lexicon lexicon = Lexicon.readText(textPath);
+        try {
+            write(lexicon, text, snapshot);
+        } catch (IOException e) {
+            // A read-only install still works, it just parses the text file every time
+            System.err.println("Could not write dictionary snapshot: " + e.getMessage());
+        }
+        event.report(textPath, lexicon, false);
+        return lexicon;
+    }
+
+    // Compiles a text dictionary into its snapshot, replacing any existing one
+    public static Path compile(String textPath) throws IOException {
+        Path text = Paths.get(textPath);
+        Path snapshot = snapshotPath(text);
+        write(Lexicon.readText(textPath), text, snapshot);
+        return snapshot;
+    }
+
+    // Returns the snapshot location for a text dictionary: dictionary.txt -> dictionary.bin
+    static Path snapshotPath(Path text) {
+        return siblingPath(text, ".bin");
+    }
+
+    // Returns a file next to the text dictionary with its extension replaced
+    static Path siblingPath(Path text, String extension) {
+        String name = text.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return text.resolveSibling(base + extension);
+    }
+
+    // CRC32 of a file's contents
+    static long checksum(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(file));
+        return crc.getValue();
+    }
+
+    // Maps a snapshot and validates it; returns null if it cannot be used
+    private static Lexicon map(Path snapshot, Path text) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                return null;
+            }
+
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return null;
+            }
+            if (text != null && !matchesSource(buffer, text)) {
+                return null;
+            }
+
+            int wordCount = buffer.getInt(32);
+            int payloadChecksum = buffer.getInt(36);
+            int edgeCount = buffer.getInt(40);
+            if (wordCount < 0 || edgeCount < 0 || fileSize != snapshotSize(wordCount, edgeCount)) {
+                return null;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(HEADER_SIZE, (int) (fileSize - HEADER_SIZE)));
+            if ((int) crc.getValue() != payloadChecksum) {
+                return null;
+            }
+
+            int bitsStart = HEADER_SIZE + (int) alignedCodesSize(wordCount);
+            int offsetsStart = bitsStart + Lexicon.BITSET_LONGS * 8;
+            int edgesStart = offsetsStart + (wordCount + 1) * 4;
+
+            IntBuffer codes = buffer.slice(HEADER_SIZE, wordCount * 4).asIntBuffer();
+            LongBuffer bits = buffer.slice(bitsStart, Lexicon.BITSET_LONGS * 8).asLongBuffer();
+            IntBuffer offsets = buffer.slice(offsetsStart, (wordCount + 1) * 4).asIntBuffer();
+            IntBuffer edges = buffer.slice(edgesStart, edgeCount * 4).asIntBuffer();
+            return new Lexicon(codes, bits, new WordGraph(offsets, edges), text != null ? text : snapshot);
+        }
+    }
+
+    // Checks the header against the text file, comparing contents only if the timestamp moved
+    private static boolean matchesSource(ByteBuffer header, Path text) throws IOException {
+        if (header.getLong(8) != Files.size(text)) {
+            return false;
+        }
+        if (header.getLong(16) == Files.getLastModifiedTime(text).toMillis()) {
+            return true;
+        }
+        return header.getLong(24) == checksum(text);
+    }
+
+    // Writes the snapshot to a temporary file and atomically moves it into place
+    private static void write(Lexicon lexicon, Path text, Path snapshot) throws IOException {
+        int wordCount = lexicon.size();
+        WordGraph graph = lexicon.graph();
+        ByteBuffer buffer = ByteBuffer.allocate((int) snapshotSize(wordCount, graph.edgeCount()));
+
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(Files.size(text));
+        buffer.putLong(Files.getLastModifiedTime(text).toMillis());
+        buffer.putLong(checksum(text));
+        buffer.putInt(wordCount);
+        buffer.putInt(0); // Payload checksum, filled in below
+        buffer.putInt(graph.edgeCount());
+        buffer.putInt(0);
+
+        buffer.asIntBuffer().put(lexicon.codeTable());
+        buffer.position(HEADER_SIZE + (int) alignedCodesSize(wordCount));
+        buffer.asLongBuffer().put(lexicon.bitTable());
+        buffer.position(buffer.position() + Lexicon.BITSET_LONGS * 8);
+        IntBuffer graphTables = buffer.asIntBuffer();
+        graphTables.put(graph.offsetTable());
+        graphTables.put(graph.edgeTable());
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, buffer.capacity() - HEADER_SIZE);
+        buffer.putInt(36, (int) crc.getValue());
+        buffer.rewind();
+
+        Path directory = snapshot.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long alignedCodesSize(int wordCount) {
+        return ((wordCount * 4L) + 7) & ~7L;
+    }
+
+    private static long snapshotSize(int wordCount, int edgeCount) {
+        return HEADER_SIZE + alignedCodesSize(wordCount) + Lexicon.BITSET_LONGS * 8L
+                + (wordCount + 1) * 4L + edgeCount * 4L;
+    }
+
+    // Command-line compiler: java LexiconSnapshot [dictionary.txt]
+    public static void main(String[] args) throws IOException {
+        String textPath = args.length > 0 ? args[0] : "dictionary.txt";
+        Path snapshot = compile(textPath);
+        System.out.println("Wrote " + snapshot + " (" + Files.size(snapshot) + " bytes)");
+    }
+}
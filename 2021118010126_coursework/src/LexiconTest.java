@@ -0,0 +1,220 @@
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class LexiconTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Lexicon lexicon;
+
+    @Before
+    public void setUp() {
+        // Small fixed lexicon so ids and sizes are predictable
+        lexicon = Lexicon.fromWords(Arrays.asList("sale", "pale", "palm", "CALM", "sale", "toolong", "ab1c"));
+    }
+
+    /**
+     * Scenario 1: Test packing and unpacking of words
+     *
+     * This test verifies:
+     * 1. encode() and decode() round-trip every 4-letter word
+     * 2. encode() folds upper case and rejects non-words
+     * 3. codes sort in the same order as the words
+     */
+    @Test
+    public void testEncodeAndDecode() {
+        assertEquals("sale", Lexicon.decode(Lexicon.encode("sale")));
+        assertEquals("zzzz", Lexicon.decode(Lexicon.encode("zzzz")));
+        assertEquals("aaaa", Lexicon.decode(0));
+        assertEquals(Lexicon.encode("opal"), Lexicon.encode("OPAL"));
+
+        assertEquals(Lexicon.NO_CODE, Lexicon.encode("abc"));
+        assertEquals(Lexicon.NO_CODE, Lexicon.encode("abcde"));
+        assertEquals(Lexicon.NO_CODE, Lexicon.encode("ab-c"));
+        assertEquals(Lexicon.NO_CODE, Lexicon.encode(null));
+
+        assertTrue(Lexicon.encode("pale") < Lexicon.encode("palm"));
+        assertTrue(Lexicon.encode("palm") < Lexicon.encode("sale"));
+
+        int code = Lexicon.encode("sale");
+        assertEquals('l' - 'a', Lexicon.letterAt(code, 2));
+        assertEquals("pale", Lexicon.decode(Lexicon.withLetter(code, 0, 'p' - 'a')));
+    }
+
+    /**
+     * Scenario 2: Test membership and word ids
+     *
+     * This test verifies:
+     * 1. duplicates and non-words are dropped on construction
+     * 2. contains() matches exactly the loaded words
+     * 3. ids are dense and follow alphabetical order
+     */
+    @Test
+    public void testMembershipAndIds() {
+        assertEquals(4, lexicon.size());
+
+        assertTrue(lexicon.contains("sale"));
+        assertTrue(lexicon.contains("calm"));
+        assertTrue(lexicon.contains("PALE"));
+        assertFalse(lexicon.contains("opal"));
+        assertFalse(lexicon.contains("toolong"));
+        assertFalse(lexicon.containsCode(Lexicon.NO_CODE));
+
+        for (int id = 0; id < lexicon.size(); id++) {
+            assertEquals(id, lexicon.idOf(lexicon.code(id)));
+        }
+        assertEquals("calm", lexicon.word(0));
+        assertEquals("sale", lexicon.word(3));
+        assertEquals(-1, lexicon.idOf(Lexicon.encode("opal")));
+    }
+
+    /**
+     * Scenario 3: Test binary snapshot compilation and fallback
+     *
+     * This test verifies:
+     * 1. loading a text dictionary writes a snapshot next to it
+     * 2. a current snapshot is loaded with the same contents
+     * 3. a changed text file or a corrupt snapshot triggers a rebuild
+     */
+    @Test
+    public void testSnapshotRebuildsWhenStale() throws IOException {
+        Path text = folder.getRoot().toPath().resolve("words.txt");
+        Files.write(text, "sale\r\npale\r\nopals\r\n".getBytes(StandardCharsets.US_ASCII));
+        Path snapshot = LexiconSnapshot.snapshotPath(text);
+        assertEquals("words.bin", snapshot.getFileName().toString());
+
+        Lexicon parsed = Lexicon.load(text.toString());
+        assertTrue("Snapshot should be written on first load", Files.exists(snapshot));
+        assertEquals(2, parsed.size());
+
+        Lexicon mapped = Lexicon.load(text.toString());
+        assertEquals(2, mapped.size());
+        assertTrue(mapped.contains("sale"));
+        assertTrue(mapped.contains("pale"));
+        assertEquals(parsed.code(0), mapped.code(0));
+        assertEquals(parsed.graph().edgeCount(), mapped.graph().edgeCount());
+        assertEquals(1, mapped.graph().degree(0));
+
+        // Changing the text file makes the snapshot stale
+        Files.write(text, "sale\npale\nopal\n".getBytes(StandardCharsets.US_ASCII));
+        Lexicon updated = Lexicon.load(text.toString());
+        assertEquals(3, updated.size());
+        assertTrue(updated.contains("opal"));
+
+        // A damaged payload fails the checksum and is rebuilt from text
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[LexiconSnapshot.HEADER_SIZE] ^= 0x7F;
+        Files.write(snapshot, bytes);
+        Lexicon repaired = Lexicon.load(text.toString());
+        assertEquals(3, repaired.size());
+        assertTrue(repaired.contains("opal"));
+        assertEquals(3, Lexicon.load(text.toString()).size());
+    }
+
+    /**
+     * Scenario 4: Test the process-wide lexicon cache
+     *
+     * This test verifies:
+     * 1. repeated lookups of an unchanged file return the same instance
+     * 2. models built from it share the lexicon but not game state
+     * 3. editing the file loads a new lexicon
+     */
+    @Test
+    public void testSharedLexiconReloadsOnlyWhenChanged() throws IOException {
+        Path text = folder.getRoot().toPath().resolve("shared.txt");
+        Files.write(text, "sale\nsole\n".getBytes(StandardCharsets.US_ASCII));
+
+        Lexicon first = LexiconCache.shared(text.toString());
+        assertSame(first, LexiconCache.shared(text.toString()));
+
+        Files.write(text, "sale\nsole\nsold\n".getBytes(StandardCharsets.US_ASCII));
+        Lexicon second = LexiconCache.shared(text.toString());
+        assertNotSame(first, second);
+        assertEquals(3, second.size());
+        assertSame(second, LexiconCache.shared(text.toString()));
+
+        Model a = new Model(second);
+        Model b = new Model(second);
+        a.submitWord("sole");
+        assertEquals(1, a.getCurrentAttempt());
+        assertEquals(0, b.getCurrentAttempt());
+    }
+
+    /**
+     * Scenario 5: Test the one-letter-difference word graph
+     *
+     * This test verifies:
+     * 1. the graph has one vertex per word
+     * 2. edges join exactly the words that differ by one letter, in both directions
+     */
+    @Test
+    public void testWordGraphEdges() {
+        WordGraph graph = lexicon.graph();
+        assertEquals(lexicon.size(), graph.size());
+
+        // calm-palm, pale-palm and pale-sale, stored once in each row
+        assertEquals(6, graph.edgeCount());
+
+        int calm = lexicon.idOf(Lexicon.encode("calm"));
+        int pale = lexicon.idOf(Lexicon.encode("pale"));
+        int palm = lexicon.idOf(Lexicon.encode("palm"));
+        int sale = lexicon.idOf(Lexicon.encode("sale"));
+
+        assertEquals(1, graph.degree(calm));
+        assertEquals(palm, graph.target(graph.edgeStart(calm)));
+        assertEquals(2, graph.degree(palm));
+        assertEquals(calm, graph.target(graph.edgeStart(palm)));
+        assertEquals(pale, graph.target(graph.edgeStart(palm) + 1));
+        assertEquals(2, graph.degree(pale));
+        assertEquals(1, graph.degree(sale));
+        assertEquals(pale, graph.target(graph.edgeStart(sale)));
+    }
+
+    /**
+     * Scenario 6: Test connected components and solvable pair sampling
+     *
+     * This test verifies:
+     * 1. words are grouped into the components of the word graph
+     * 2. sampled pairs are always distinct and connected
+     * 3. isolated words are never sampled
+     */
+    @Test
+    public void testComponentsAndPairSampling() {
+        Lexicon split = Lexicon.fromWords(Arrays.asList("sale", "pale", "palm", "opal", "oral", "zzzz"));
+        WordComponents components = split.components();
+        int sale = split.idOf(Lexicon.encode("sale"));
+        int palm = split.idOf(Lexicon.encode("palm"));
+        int opal = split.idOf(Lexicon.encode("opal"));
+        int oral = split.idOf(Lexicon.encode("oral"));
+        int zzzz = split.idOf(Lexicon.encode("zzzz"));
+
+        assertEquals(3, components.componentCount());
+        assertTrue(components.areConnected(sale, palm));
+        assertTrue(components.areConnected(opal, oral));
+        assertFalse(components.areConnected(sale, opal));
+        assertEquals(3, components.componentSize(sale));
+        assertEquals(2, components.componentSize(oral));
+        assertEquals(1, components.componentSize(zzzz));
+        assertEquals(5, components.pairableWordCount());
+
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 1000; i++) {
+            int start = components.sampleConnectedWord(random);
+            int target = components.samplePartner(start, random);
+            assertNotEquals(zzzz, start);
+            assertNotEquals(start, target);
+            assertTrue(components.areConnected(start, target));
+        }
+    }
+}
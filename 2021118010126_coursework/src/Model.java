@@ -1,63 +1,76 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.Callable;
 
-public class Model extends Observable implements IModel {
+public class Model implements IModel {
     private String startWord;
     private String targetWord;
-    private List<String> dictionary;
+    private final Lexicon dictionary;
     private int currentAttempt;
     private List<String> attempts;
     private boolean showErrorMessages;
     private boolean showPath;
     private boolean randomWords;
 
+    private SplittableRandom random = new SplittableRandom();  // Reused for every random game
+    private PathFinder pathFinder;
+    private PathStats lastPathStats;
+    private final GameEventBus events = new GameEventBus();
+
+    // Distances to the target shared with every game that has the same target, looked up on the first hint
+    // rather than when the game starts; the target's id, and the current word's id
+    private DistanceMap targetDistances;
+    private int targetId;
+    private int currentWordId;
+    // The dictionary's all-pairs table when setTableHints chose it for hints, otherwise null
+    private DistanceTable hintTable;
+
+    // Packed Feedback of each attempt, parallel to attempts, and the target's code and letter mask
+    private int[] attemptFeedback = new int[16];
+    private int targetCode;
+    private int targetMask;
+
     // Default words used when random selection is disabled
     private static final String DEFAULT_START_WORD = "sale";
     private static final String DEFAULT_TARGET_WORD = "opal";
 
-    // Initializes dictionary and game state
+    // Daily puzzles written by PuzzleBankBuilder
+    static final String PUZZLE_BANK_FILE = "puzzles.bin";
+
+    // Initializes game state over the shared dictionary
     public Model() {
-        dictionary = new ArrayList<>();
-        attempts = new ArrayList<>();
-        loadDictionary();
-        initializeGame(); // Initialize game state with default or random words
+        this(LexiconCache.shared("dictionary.txt"));
     }
 
-    // Loads 4-letter words from dictionary
-    private void loadDictionary() {
-        try (BufferedReader reader = new BufferedReader(new FileReader("dictionary.txt"))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                // Only add 4-letter words to the dictionary
-                if (line.length() == 4) {
-                    dictionary.add(line.toLowerCase());
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error loading dictionary: " + e.getMessage());
-        }
+    // Initializes game state over the given dictionary, which may be shared with other models
+    public Model(Lexicon dictionary) {
+        // Precondition: dictionary is loaded
+        assert dictionary != null && !dictionary.isEmpty() : "Dictionary must not be empty";
 
-        // Ensure dictionary is not empty after loading
-        assert !dictionary.isEmpty() : "Dictionary must not be empty";
+        this.dictionary = dictionary;
+        this.pathFinder = PathFinder.fromConfiguration();
+        attempts = new ArrayList<>();
+        initializeGame(); // Initialize game state with default or random words
     }
 
-    // Selects a random 4-letter word
-    private String getRandomWord() {
-        List<String> fourLetterWords = new ArrayList<>();
-        for (String word : dictionary) {
-            if (word.length() == 4) {
-                fourLetterWords.add(word);
-            }
+    // Picks a random start and target word that are connected by a ladder
+    // Sampling from the component index means no search or retry loop is needed
+    private void selectRandomWords() {
+        WordComponents components = dictionary.components();
+        if (components.pairableWordCount() == 0) {
+            // Fallback to default words if no two words are connected
+            startWord = DEFAULT_START_WORD;
+            targetWord = DEFAULT_TARGET_WORD;
+            return;
         }
 
-        if (fourLetterWords.isEmpty()) {
-            return DEFAULT_START_WORD; // Fallback to default word if no 4-letter words found
-        }
+        int start = components.sampleConnectedWord(random);
+        int target = components.samplePartner(start, random);
+        startWord = dictionary.word(start);
+        targetWord = dictionary.word(target);
 
-        Random random = new Random();
-        return fourLetterWords.get(random.nextInt(fourLetterWords.size()));
+        // Postcondition: the target can be reached from the start
+        assert components.areConnected(start, target) : "Random words must be connected";
     }
 
     // Checks if words differ by exactly one letter
@@ -118,13 +131,18 @@ public class Model extends Observable implements IModel {
         int oldSize = attempts.size();
         int oldAttempt = currentAttempt;
 
-        // Add word to attempts list and increment counter
+        // Add word and its feedback to the attempts and increment counter
+        int code = Lexicon.encode(word);
+        if (oldSize == attemptFeedback.length) {
+            attemptFeedback = Arrays.copyOf(attemptFeedback, oldSize * 2);
+        }
+        attemptFeedback[oldSize] = Feedback.compute(code, targetCode, targetMask);
         attempts.add(word);
         currentAttempt++;
+        currentWordId = dictionary.idOf(code);
 
-        // Notify observers of model change
-        setChanged();
-        notifyObservers();
+        // Notify listeners of the new attempt
+        events.publish(new GameEvent.AttemptAdded(oldSize, word, attemptFeedback[oldSize]));
 
         // Verify attempt counter increased
         assert currentAttempt == oldAttempt + 1 : "Current attempt should increase by 1";
@@ -185,11 +203,11 @@ public class Model extends Observable implements IModel {
 
         attempts.clear();
         currentAttempt = 0;
+        currentWordId = dictionary.idOf(Lexicon.encode(startWord));
 
         // Keep the same words - words are not regenerated on reset
 
-        setChanged();
-        notifyObservers();
+        events.publish(new GameEvent.GameReset());
 
         // Postcondition: attempts list is empty
         assert attempts.isEmpty() : "Attempts list should be empty after reset";
@@ -200,6 +218,31 @@ public class Model extends Observable implements IModel {
         assert targetWord == oldTargetWord : "Target word should remain the same after reset";
     }
 
+    // Restores a game saved by a GameJournal: the given words, with the attempts replayed in order
+    // Publishes the same events as a live game; returns false, keeping the attempts replayed so far, if one
+    // is no longer a valid move (for instance because the dictionary changed)
+    public boolean restoreGame(String savedStartWord, String savedTargetWord, List<String> savedAttempts) {
+        // Precondition: the saved game has both words
+        assert savedStartWord != null && savedTargetWord != null : "Saved words must not be null";
+
+        attempts.clear();
+        currentAttempt = 0;
+        startWord = savedStartWord;
+        targetWord = savedTargetWord;
+        prepareHints();
+        events.publish(new GameEvent.GameStarted(startWord, targetWord));
+
+        for (String word : savedAttempts) {
+            if (!submitWord(word)) {
+                return false;
+            }
+        }
+
+        // Postcondition: every saved attempt was replayed
+        assert currentAttempt == savedAttempts.size() : "All saved attempts should be replayed";
+        return true;
+    }
+
     // Starts a new game with fresh words based on random setting
     // Clears all attempts and ensures start/target words are valid and different
     @Override
@@ -211,19 +254,15 @@ public class Model extends Observable implements IModel {
         currentAttempt = 0;
 
         if (randomWords) {
-            startWord = getRandomWord();
-
-            // Make sure the target word is different from the start word
-            do {
-                targetWord = getRandomWord();
-            } while (targetWord.equals(startWord));
+            // Start and target are always different and connected
+            selectRandomWords();
         } else {
             startWord = DEFAULT_START_WORD;
             targetWord = DEFAULT_TARGET_WORD;
         }
+        prepareHints();
 
-        setChanged();
-        notifyObservers();
+        events.publish(new GameEvent.GameStarted(startWord, targetWord));
 
         // Postcondition: attempts list is empty
         assert attempts.isEmpty() : "Attempts list should be empty after new game";
@@ -235,6 +274,67 @@ public class Model extends Observable implements IModel {
         assert !startWord.equals(targetWord) : "Start and target words must be different";
     }
 
+    // Starts a new game whose optimal solution takes exactly the given number of moves
+    // Picks the pair from the dictionary's distance buckets, so no search or retry is needed. The first
+    // call on a dictionary loads its distance table and buckets every pair (about 0.2 s and 31 MB for
+    // dictionary.txt); after that a game costs one bucket sample, two id lookups and the two word Strings,
+    // since the distance map for hints is only built if the game asks for one
+    @Override
+    public void newGame(int difficulty) {
+        // Class invariant: dictionary is loaded
+        assert !dictionary.isEmpty() : "Dictionary must be loaded";
+
+        // Throws before any state changes if no pair is that far apart
+        int pair = dictionary.puzzles().samplePair(difficulty, random);
+
+        attempts.clear();
+        currentAttempt = 0;
+        startWord = dictionary.word(PuzzleGenerator.startOf(pair));
+        targetWord = dictionary.word(PuzzleGenerator.targetOf(pair));
+        prepareHints();
+
+        events.publish(new GameEvent.GameStarted(startWord, targetWord));
+
+        // Postcondition: attempts list is empty
+        assert attempts.isEmpty() : "Attempts list should be empty after new game";
+        // Postcondition: the optimal solution has the requested length
+        assert getDistanceToTarget() == difficulty : "New game must have the requested difficulty";
+    }
+
+    // Starts the published puzzle for a date, or the default words if the puzzle bank has none
+    @Override
+    public void newGame(LocalDate date) {
+        // Class invariant: dictionary is loaded
+        assert !dictionary.isEmpty() : "Dictionary must be loaded";
+
+        attempts.clear();
+        currentAttempt = 0;
+        selectDailyWords(date);
+        prepareHints();
+
+        events.publish(new GameEvent.GameStarted(startWord, targetWord));
+
+        // Postcondition: attempts list is empty
+        assert attempts.isEmpty() : "Attempts list should be empty after new game";
+        // Postcondition: start and target words are set
+        assert startWord != null && targetWord != null : "Start and target words must be set after new game";
+    }
+
+    // Reads the day's puzzle from the bank by offset
+    // Falls back to the default words if there is no bank, it does not cover the date,
+    // or it was built from a dictionary without the puzzle's words
+    private void selectDailyWords(LocalDate date) {
+        PuzzleBank bank = PuzzleBank.shared(PUZZLE_BANK_FILE);
+        PuzzleBank.Puzzle puzzle = bank != null ? bank.puzzleFor(date) : null;
+        if (puzzle != null && dictionary.contains(puzzle.getStartWord()) && dictionary.contains(puzzle.getTargetWord())) {
+            startWord = puzzle.getStartWord();
+            targetWord = puzzle.getTargetWord();
+        } else {
+            startWord = DEFAULT_START_WORD;
+            targetWord = DEFAULT_TARGET_WORD;
+        }
+    }
+
     /**
      * Initialize the game - used only in constructor
      * Sets up initial words based on randomWords setting
@@ -244,16 +344,44 @@ public class Model extends Observable implements IModel {
         currentAttempt = 0;
 
         if (randomWords) {
-            startWord = getRandomWord();
-
-            // Make sure the target word is different from the start word
-            do {
-                targetWord = getRandomWord();
-            } while (targetWord.equals(startWord));
+            // Start and target are always different and connected
+            selectRandomWords();
         } else {
             startWord = DEFAULT_START_WORD;
             targetWord = DEFAULT_TARGET_WORD;
         }
+        prepareHints();
+    }
+
+    // Resolves the new game's words to ids and drops the previous target's distance map, which
+    // targetDistances() looks up again only if this game asks for a hint. Starting a game therefore costs
+    // two binary searches, not a search of the word graph
+    // Also precomputes the target's letter mask so feedback for each attempt is a few bit operations
+    private void prepareHints() {
+        targetCode = Lexicon.encode(targetWord);
+        targetMask = Feedback.letterMask(targetCode);
+        targetId = dictionary.idOf(targetCode);
+        targetDistances = null;
+        currentWordId = dictionary.idOf(Lexicon.encode(startWord));
+    }
+
+    // Returns the shared distance map for the target word, or null if the target is not a word
+    // Only the first game with this target, in any model over the same dictionary, runs a search
+    private DistanceMap targetDistances() {
+        if (targetDistances == null && targetId >= 0) {
+            targetDistances = dictionary.hints().distancesTo(targetId);
+        }
+        return targetDistances;
+    }
+
+    @Override
+    public void setRandomSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public GameEventBus getEventBus() {
+        return events;
     }
 
     @Override
@@ -264,8 +392,7 @@ public class Model extends Observable implements IModel {
     @Override
     public void setShowErrorMessages(boolean showErrorMessages) {
         this.showErrorMessages = showErrorMessages;
-        setChanged();
-        notifyObservers();
+        events.publish(new GameEvent.FlagChanged(GameEvent.Flag.SHOW_ERROR_MESSAGES, showErrorMessages));
     }
 
     @Override
@@ -276,8 +403,7 @@ public class Model extends Observable implements IModel {
     @Override
     public void setShowPath(boolean showPath) {
         this.showPath = showPath;
-        setChanged();
-        notifyObservers();
+        events.publish(new GameEvent.FlagChanged(GameEvent.Flag.SHOW_PATH, showPath));
     }
 
     @Override
@@ -288,10 +414,12 @@ public class Model extends Observable implements IModel {
     @Override
     public void setRandomWords(boolean randomWords) {
         this.randomWords = randomWords;
+        events.publish(new GameEvent.FlagChanged(GameEvent.Flag.RANDOM_WORDS, randomWords));
         newGame(); // When changing this setting, start a new game
     }
 
-    // Calculates optimal solution path from start to target word using breadth-first search
+    // Calculates optimal solution path from start to target word using the selected path finder
+    // Solved paths are cached per dictionary, so repeated redraws of the same game do not search again
     // Requires dictionary to be loaded and start/target words to be set
     // Ensures path starts with start word and ends with target word if a path exists
     @Override
@@ -301,72 +429,201 @@ public class Model extends Observable implements IModel {
         // Class invariant: start and target words are set
         assert startWord != null && targetWord != null : "Start and target words must be set";
 
-        // Breadth-first search to find a path from startWord to targetWord
-        Queue<String> queue = new LinkedList<>();
-        Map<String, String> parents = new HashMap<>();
-        Set<String> visited = new HashSet<>();
+        List<String> path = new ArrayList<>();
+        lastPathStats = searchPath(pathFinder, startWord, targetWord, path);
 
-        queue.add(startWord);
-        visited.add(startWord);
+        // Postcondition: path starts with startWord and ends with targetWord
+        assert path.isEmpty() || path.get(0).equals(startWord) : "Path should start with start word";
+        assert path.isEmpty() || path.get(path.size() - 1).equals(targetWord) : "Path should end with target word";
 
-        while (!queue.isEmpty()) {
-            String current = queue.poll();
+        return path;
+    }
 
-            // If we've reached the target, reconstruct the path
-            if (current.equals(targetWord)) {
-                List<String> path = new ArrayList<>();
-                String word = targetWord;
-                while (word != null) {
-                    path.add(0, word);
-                    word = parents.get(word);
-                }
+    // The words and a new finder of the same kind are captured now, so the task never reads this model
+    @Override
+    public Callable<List<String>> findPathTask() {
+        // Class invariant: start and target words are set
+        assert startWord != null && targetWord != null : "Start and target words must be set";
 
-                // Postcondition: path starts with startWord and ends with targetWord
-                assert path.get(0).equals(startWord) : "Path should start with start word";
-                assert path.get(path.size() - 1).equals(targetWord) : "Path should end with target word";
+        String from = startWord;
+        String to = targetWord;
+        PathFinder finder = PathFinder.create(pathFinder.getName());
+        return () -> {
+            List<String> path = new ArrayList<>();
+            searchPath(finder, from, to, path);
+            return path;
+        };
+    }
 
-                return path;
-            }
+    // Searches for an optimal path between two words, adding its words to path and returning the search statistics
+    // Only the dictionary, its caches and the given finder are used, so this is safe to run on another thread
+    // Lookups slower than its threshold are recorded as a PathSearchEvent when Flight Recorder is on
+    private PathStats searchPath(PathFinder finder, String from, String to, List<String> path) {
+        PathSearchEvent event = new PathSearchEvent();
+        event.begin();
+        PathStats stats = lookUpPath(finder, from, to, path);
+        event.report(from, to, stats);
+        return stats;
+    }
 
-            // Try changing each letter to find neighbors
-            for (int i = 0; i < current.length(); i++) {
-                for (char c = 'a'; c <= 'z'; c++) {
-                    if (current.charAt(i) == c) {
-                        continue; // Same letter, no change
-                    }
-
-                    StringBuilder neighbor = new StringBuilder(current);
-                    neighbor.setCharAt(i, c);
-                    String neighborStr = neighbor.toString();
-
-                    // Check if the neighbor is a valid word and hasn't been visited
-                    if (dictionary.contains(neighborStr) && !visited.contains(neighborStr)) {
-                        queue.add(neighborStr);
-                        visited.add(neighborStr);
-                        parents.put(neighborStr, current);
-                    }
-                }
-            }
+    // Answers from the cache or the component index when it can, and searches otherwise
+    private PathStats lookUpPath(PathFinder finder, String from, String to, List<String> path) {
+        long begin = System.nanoTime();
+        int startCode = Lexicon.encode(from);
+        int targetCode = Lexicon.encode(to);
+        int start = dictionary.idOf(startCode);
+        int target = dictionary.idOf(targetCode);
+        if (start < 0 || target < 0) {
+            return new PathStats(finder.getName(), 0, 0, 0); // Words outside the dictionary are not in the graph
+        }
+
+        // Words in different components have no ladder, so there is nothing to search
+        if (!dictionary.components().areConnected(start, target)) {
+            return new PathStats(finder.getName(), 0, System.nanoTime() - begin, 0);
         }
 
-        // No path found
-        return Collections.emptyList();
+        PathCache cache = dictionary.pathCache();
+        long key = PathCache.key(startCode, targetCode);
+        List<String> cached = cache.get(key);
+        if (cached != null) {
+            path.addAll(cached);
+            return new PathStats(PathStats.CACHE, 0, System.nanoTime() - begin, cached.size());
+        }
+
+        int[] ids = finder.findPath(dictionary, start, target);
+        List<String> found = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            found.add(dictionary.word(id));
+        }
+        cache.put(key, found);
+        path.addAll(found);
+        return new PathStats(finder.getName(), finder.getNodesExpanded(), System.nanoTime() - begin, ids.length);
     }
 
     @Override
-    public int[] getFeedback(String word) {
-        int[] feedback = new int[4];
-
-        for (int i = 0; i < 4; i++) {
-            if (word.charAt(i) == targetWord.charAt(i)) {
-                feedback[i] = 1; // Correct letter in correct position (green)
-            } else if (targetWord.indexOf(word.charAt(i)) != -1) {
-                feedback[i] = 0; // Letter exists in target word but in wrong position
-            } else {
-                feedback[i] = -1; // Letter does not exist in target word (grey)
+    public int getDistanceToTarget() {
+        if (targetId < 0 || currentWordId < 0) {
+            return DistanceMap.UNREACHABLE;
+        }
+        // A distance table someone already loaded answers without building a distance map; the distance is
+        // the same either way, so unlike the hints this needs no setTableHints
+        DistanceTable table = dictionary.loadedDistances();
+        if (table != null && targetDistances == null) {
+            return table.distance(currentWordId, targetId);
+        }
+        return targetDistances().distance(currentWordId);
+    }
+
+    // Chooses whether hints and the remaining path scan the dictionary's all-pairs table, loading it if need be,
+    // rather than a distance map for each target. With thousands of games chasing different targets, as on
+    // a server, scanning a word's neighbours in the table beats building a map per target
+    // Throws IllegalArgumentException if the dictionary is too large for a table
+    public void setTableHints(boolean enabled) {
+        hintTable = enabled ? dictionary.distances() : null;
+    }
+
+    // Returns the id of the next word on an optimal ladder from a word to the target, or -1 if there is none
+    private int nextStep(int word) {
+        if (hintTable == null) {
+            return targetDistances().next(word);
+        }
+
+        int remaining = hintTable.distance(word, targetId);
+        if (remaining <= 0) {
+            return -1;
+        }
+        WordGraph graph = dictionary.graph();
+        for (int edge = graph.edgeStart(word), end = graph.edgeEnd(word); edge < end; edge++) {
+            int neighbour = graph.target(edge);
+            if (hintTable.distance(neighbour, targetId) == remaining - 1) {
+                return neighbour;
             }
         }
+        throw new IllegalStateException("Distance table has no next step from " + dictionary.word(word));
+    }
 
+    @Override
+    public String getHint() {
+        if (targetId < 0 || currentWordId < 0) {
+            return null;
+        }
+        int next = nextStep(currentWordId);
+        return next >= 0 ? dictionary.word(next) : null;
+    }
+
+    @Override
+    public List<String> getRemainingPath() {
+        if (targetId < 0 || currentWordId < 0) {
+            return Collections.emptyList();
+        }
+
+        int remaining = Math.max(0, getDistanceToTarget());
+        List<String> path = new ArrayList<>(remaining);
+        int id = currentWordId;
+        while (path.size() < remaining) {
+            id = nextStep(id);
+            path.add(dictionary.word(id));
+        }
+
+        // Postcondition: a non-empty remaining path ends with the target word
+        assert path.isEmpty() || path.get(path.size() - 1).equals(targetWord) : "Remaining path should end with target word";
+
+        return path;
+    }
+
+    // Looks the distance up in the dictionary's all-pairs table instead of searching
+    @Override
+    public int getDistance(String word1, String word2) {
+        // Precondition: words are not null
+        assert word1 != null && word2 != null : "Words cannot be null";
+
+        int id1 = dictionary.idOf(Lexicon.encode(word1));
+        int id2 = dictionary.idOf(Lexicon.encode(word2));
+        if (id1 < 0 || id2 < 0) {
+            return DistanceTable.UNREACHABLE;
+        }
+        return dictionary.distances().distance(id1, id2);
+    }
+
+    @Override
+    public String getPathFinder() {
+        return pathFinder.getName();
+    }
+
+    @Override
+    public void setPathFinder(String name) {
+        // Precondition: name is not null
+        assert name != null : "Path finder name cannot be null";
+
+        pathFinder = PathFinder.create(name);
+        lastPathStats = null;
+    }
+
+    @Override
+    public PathStats getLastPathStats() {
+        return lastPathStats;
+    }
+
+    // Computes feedback for any word against the target; attempts already have theirs stored
+    @Override
+    public int[] getFeedback(String word) {
+        FeedbackEvent event = new FeedbackEvent();
+        event.begin();
+        // Any 4-character string gets feedback; one that is not a word code is compared character by character
+        int code = Lexicon.encode(word);
+        int packed = code != Lexicon.NO_CODE
+                ? Feedback.compute(code, targetCode, targetMask)
+                : Feedback.compare(word, targetWord);
+        int[] feedback = Feedback.toArray(packed);
+        event.report(word, targetWord);
         return feedback;
     }
+
+    @Override
+    public int getAttemptFeedback(int index) {
+        // Precondition: index refers to a submitted attempt
+        assert index >= 0 && index < attempts.size() : "No attempt at index " + index;
+
+        return attemptFeedback[index];
+    }
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Call, accept and reject counters and a latency histogram for each IModel operation an InstrumentedModel times
+// Every call is counted, but a clock read costs more than a fast operation like isValidWord, so fast
+// operations are timed on one call in SAMPLE_INTERVAL; once an operation is seen to take SLOW_NANOS or
+// more, every call is timed until a quicker one turns up. The histograms therefore describe the timed
+// calls, a uniform sample of the fast ones and all of the slow ones.
+// Like the histograms, the counters expect one recording thread at a time, which is how models are used;
+// any thread may read them, through snapshot(), format() or JMX
+public final class ModelStats implements ModelStatsMXBean {
+    // The operations that are timed; cheap getters are passed straight through and not listed
+    public enum Operation {
+        SUBMIT_WORD("submitWord"),
+        IS_VALID_WORD("isValidWord"),
+        FIND_PATH("findPath"),
+        NEW_GAME("newGame"),
+        RESET_GAME("resetGame"),
+        GET_HINT("getHint"),
+        GET_REMAINING_PATH("getRemainingPath"),
+        GET_DISTANCE("getDistance"),
+        GET_FEEDBACK("getFeedback");
+
+        private final String methodName;
+
+        Operation(String methodName) {
+            this.methodName = methodName;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    // Returned by start() for a call that is counted but not timed
+    static final long NOT_TIMED = Long.MIN_VALUE;
+    // While calls take under SLOW_NANOS, a histogram holds only one call in SAMPLE_INTERVAL: its count
+    // is the number of timed calls, not of all calls, and its percentiles are those of the sample
+    static final int SAMPLE_INTERVAL = 16;
+    static final long SLOW_NANOS = 2_000;
+
+    // Accepted and rejected counts, two slots per operation
+    private final AtomicLongArray outcomes = new AtomicLongArray(OPERATIONS.length * 2);
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    // Calls of each operation left until the next timed one; the first call is always timed
+    private final int[] untilTimed = new int[OPERATIONS.length];
+    private ObjectName registeredName;
+
+    public ModelStats() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    // Called before an operation runs; returns the start time if this call is to be timed, or NOT_TIMED
+    public long start(Operation operation) {
+        return --untilTimed[operation.ordinal()] <= 0 ? System.nanoTime() : NOT_TIMED;
+    }
+
+    // Called after an operation with what start() returned; accepted is false when it turned its input down
+    public void stop(Operation operation, long begin, boolean accepted) {
+        int slot = operation.ordinal() * 2 + (accepted ? 0 : 1);
+        outcomes.lazySet(slot, outcomes.get(slot) + 1);
+        if (begin != NOT_TIMED) {
+            long nanos = System.nanoTime() - begin;
+            latencies[operation.ordinal()].record(nanos);
+            untilTimed[operation.ordinal()] = nanos >= SLOW_NANOS ? 1 : SAMPLE_INTERVAL;
+        }
+    }
+
+    // Returns the latency histogram of one operation
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    public long getCalls(Operation operation) {
+        return getAccepted(operation) + getRejected(operation);
+    }
+
+    public long getAccepted(Operation operation) {
+        return outcomes.get(operation.ordinal() * 2);
+    }
+
+    public long getRejected(Operation operation) {
+        return outcomes.get(operation.ordinal() * 2 + 1);
+    }
+
+    // Registers these stats with the platform MBean server as weaver:type=ModelStats,name=<name>
+    // A bean already registered under that name is replaced
+    public void register(String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("weaver:type=ModelStats,name=" + ObjectName.quote(name));
+        if (server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+        server.registerMBean(this, objectName);
+        registeredName = objectName;
+    }
+
+    // Removes these stats from the platform MBean server if they were registered
+    public void unregister() throws JMException {
+        if (registeredName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+            registeredName = null;
+        }
+    }
+
+    @Override
+    public List<OperationSnapshot> getOperations() {
+        List<OperationSnapshot> snapshots = new ArrayList<>(OPERATIONS.length);
+        for (Operation operation : OPERATIONS) {
+            snapshots.add(snapshot(operation));
+        }
+        return snapshots;
+    }
+
+    @Override
+    public long getTotalCalls() {
+        long total = 0;
+        for (Operation operation : OPERATIONS) {
+            total += getCalls(operation);
+        }
+        return total;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < outcomes.length(); i++) {
+            outcomes.set(i, 0);
+        }
+        for (LatencyHistogram histogram : latencies) {
+            histogram.reset();
+        }
+        Arrays.fill(untilTimed, 0);
+    }
+
+    // Returns the current figures of one operation
+    public OperationSnapshot snapshot(Operation operation) {
+        LatencyHistogram latency = latencies[operation.ordinal()];
+        return new OperationSnapshot(operation.getMethodName(), getAccepted(operation), getRejected(operation),
+                latency.getCount(), latency.getMean(), latency.getPercentile(0.5), latency.getPercentile(0.99),
+                latency.getMax());
+    }
+
+    // Formats every operation that has been called as a table, one line per operation
+    public String format() {
+        StringBuilder table = new StringBuilder(String.format("%-18s %9s %9s %9s %9s %10s %10s %10s %10s%n",
+                "operation", "calls", "accepted", "rejected", "timed", "mean us", "p50 us", "p99 us", "max us"));
+        for (Operation operation : OPERATIONS) {
+            OperationSnapshot s = snapshot(operation);
+            if (s.getCalls() == 0) {
+                continue;
+            }
+            table.append(String.format("%-18s %9d %9d %9d %9d %10.2f %10.2f %10.2f %10.2f%n", s.getOperation(),
+                    s.getCalls(), s.getAccepted(), s.getRejected(), s.getTimed(), s.getMeanNanos() / 1e3,
+                    s.getP50Nanos() / 1e3, s.getP99Nanos() / 1e3, s.getMaxNanos() / 1e3));
+        }
+        return table.toString();
+    }
+
+    // Figures of one operation at one moment; JMX shows each getter as an item of composite data
+    public static final class OperationSnapshot {
+        private final String operation;
+        private final long accepted;
+        private final long rejected;
+        private final long timed;
+        private final double meanNanos;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+
+        public OperationSnapshot(String operation, long accepted, long rejected, long timed, double meanNanos,
+                                 long p50Nanos, long p99Nanos, long maxNanos) {
+            this.operation = operation;
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.timed = timed;
+            this.meanNanos = meanNanos;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public long getCalls() {
+            return accepted + rejected;
+        }
+
+        public long getAccepted() {
+            return accepted;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        // Returns the number of calls the latency figures are drawn from
+        public long getTimed() {
+            return timed;
+        }
+
+        public double getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+import java.util.List;
+
+// Management interface of ModelStats, registered with the platform MBean server under weaver:type=ModelStats
+// As an MXBean each operation's figures show up in JConsole and other JMX clients as plain composite data
+public interface ModelStatsMXBean {
+    // Returns the figures of every instrumented operation, in a fixed order
+    List<ModelStats.OperationSnapshot> getOperations();
+
+    // Returns the total number of instrumented calls
+    long getTotalCalls();
+
+    // Clears every counter and histogram
+    void reset();
+}
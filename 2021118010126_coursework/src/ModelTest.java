@@ -2,7 +2,27 @@ import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 
 public class ModelTest {
 
@@ -229,4 +249,543 @@ public class ModelTest {
             }
         }
     }
+
+    /**
+     * Scenario 4: Test hints from the player's current position
+     *
+     * This test verifies:
+     * 1. the distance to the target matches the optimal path length from the start
+     * 2. following hints reaches the target, one move closer each time
+     * 3. the remaining path always has one word per move left
+     *
+     * Preconditions:
+     * - model is initialized with fixed start and target words
+     *
+     * Postconditions:
+     * - the game is won after getDistanceToTarget() hinted moves
+     * - no hint is offered once the target is reached
+     */
+    @Test
+    public void testHintsFromCurrentPosition() {
+
+        // Distance from the start equals the number of moves on an optimal path
+        List<String> path = model.findPath();
+        assertFalse("Default game should be solvable", path.isEmpty());
+        int distance = model.getDistanceToTarget();
+        assertEquals(path.size() - 1, distance);
+        assertEquals(distance, model.getRemainingPath().size());
+
+        // Play an arbitrary first move, then let the hints finish the game
+        String validWord = findValidWordFromStart();
+        assertNotNull("Could not find a valid word from start word", validWord);
+        model.submitWord(validWord);
+
+        while (!model.hasWon()) {
+            int before = model.getDistanceToTarget();
+            List<String> remaining = model.getRemainingPath();
+            assertEquals(before, remaining.size());
+            assertEquals(model.getTargetWord(), remaining.get(remaining.size() - 1));
+
+            String hint = model.getHint();
+            assertEquals(remaining.get(0), hint);
+            assertTrue("Hint should be a valid move: " + hint, model.submitWord(hint));
+            assertEquals(before - 1, model.getDistanceToTarget());
+        }
+
+        assertEquals(0, model.getDistanceToTarget());
+        assertNull(model.getHint());
+        assertTrue(model.getRemainingPath().isEmpty());
+
+        // Reset returns the hints to the start word
+        model.resetGame();
+        assertEquals(distance, model.getDistanceToTarget());
+    }
+
+    /**
+     * Scenario 5: Test that random games are always solvable
+     *
+     * This test verifies:
+     * 1. newGame() with random words picks two different words
+     * 2. every random game has a path from start to target
+     *
+     * Preconditions:
+     * - random word selection is enabled
+     *
+     * Postconditions:
+     * - findPath() returns a non-empty path for every random game
+     */
+    @Test
+    public void testRandomGamesAreSolvable() {
+        model.setRandomWords(true);
+
+        for (int i = 0; i < 200; i++) {
+            model.newGame();
+            assertNotEquals(model.getStartWord(), model.getTargetWord());
+            assertFalse("Random game should be solvable: " + model.getStartWord() + " -> " + model.getTargetWord(),
+                    model.findPath().isEmpty());
+        }
+
+        model.setRandomWords(false);
+    }
+
+    /**
+     * Scenario 6: Test games with a requested difficulty
+     *
+     * This test verifies:
+     * 1. newGame(difficulty) picks words exactly that many moves apart
+     * 2. impossible difficulties are rejected without changing the game
+     * 3. the same seed reproduces the same games
+     * 4. starting games of a set difficulty builds no distance map for hints
+     *
+     * Preconditions:
+     * - model is initialized with fixed start and target words
+     *
+     * Postconditions:
+     * - findPath() has difficulty + 1 words for every generated game
+     */
+    @Test
+    public void testNewGameWithDifficulty() {
+        model.setRandomSeed(2024);
+
+        for (int difficulty = 1; difficulty <= 8; difficulty++) {
+            model.newGame(difficulty);
+            assertEquals(0, model.getCurrentAttempt());
+            assertEquals(difficulty, model.getDistanceToTarget());
+            assertEquals(difficulty + 1, model.findPath().size());
+        }
+
+        String startWord = model.getStartWord();
+        try {
+            model.newGame(250);
+            fail("Impossible difficulty should be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(startWord, model.getStartWord());
+        }
+
+        // Same seed, same sequence of puzzles
+        model.setRandomSeed(99);
+        model.newGame(5);
+        String firstStart = model.getStartWord();
+        String firstTarget = model.getTargetWord();
+        model.setRandomSeed(99);
+        model.newGame(5);
+        assertEquals(firstStart, model.getStartWord());
+        assertEquals(firstTarget, model.getTargetWord());
+
+        // A lexicon of its own, so no other test has filled its hint cache
+        Lexicon lexicon = Lexicon.load("dictionary.txt");
+        Model fresh = new Model(lexicon);
+        for (int i = 0; i < 50; i++) {
+            fresh.newGame(1 + i % 8);
+            assertEquals(1 + i % 8, fresh.getDistanceToTarget());
+        }
+        assertEquals(0, lexicon.hints().size());
+    }
+
+    /**
+     * Scenario 7: Test packed letter feedback
+     *
+     * This test verifies:
+     * 1. packed feedback agrees with a direct letter-by-letter comparison for random word pairs
+     * 2. every submitted attempt stores the feedback it had when played
+     * 3. the int[] form is the packed form unpacked
+     * 4. words with characters that are not letters still get feedback, those characters never in the target
+     *
+     * Preconditions:
+     * - model is initialized with "sale" and "opal"
+     */
+    @Test
+    public void testPackedFeedback() {
+        Lexicon lexicon = LexiconCache.shared("dictionary.txt");
+        SplittableRandom random = new SplittableRandom(13);
+        for (int i = 0; i < 2000; i++) {
+            int guess = lexicon.code(random.nextInt(lexicon.size()));
+            int target = lexicon.code(random.nextInt(lexicon.size()));
+            String guessWord = Lexicon.decode(guess);
+            String targetWord = Lexicon.decode(target);
+
+            int packed = Feedback.compute(guess, target, Feedback.letterMask(target));
+            for (int j = 0; j < 4; j++) {
+                int expected = guessWord.charAt(j) == targetWord.charAt(j) ? Feedback.CORRECT
+                        : targetWord.indexOf(guessWord.charAt(j)) >= 0 ? Feedback.PRESENT : Feedback.ABSENT;
+                assertEquals(expected, Feedback.stateAt(packed, j));
+            }
+            assertEquals(guess == target, Feedback.isSolved(packed));
+        }
+
+        // Play the optimal ladder to the target and check what each attempt stored
+        List<String> path = model.findPath();
+        for (int i = 1; i < path.size(); i++) {
+            assertTrue(model.submitWord(path.get(i)));
+        }
+        for (int i = 0; i < model.getAttempts().size(); i++) {
+            String attempt = model.getAttempts().get(i);
+            int packed = model.getAttemptFeedback(i);
+            assertArrayEquals(model.getFeedback(attempt), Feedback.toArray(packed));
+        }
+        assertTrue(Feedback.isSolved(model.getAttemptFeedback(path.size() - 2)));
+        assertArrayEquals(new int[]{-1, 0, 0, -1}, model.getFeedback("sale"));
+        assertArrayEquals(new int[]{1, -1, 1, -1}, model.getFeedback("o-a1"));
+        assertArrayEquals(new int[]{0, -1, 0, 0}, model.getFeedback("l4po"));
+        assertArrayEquals(new int[]{-1, -1, -1, -1}, model.getFeedback("    "));
+    }
+
+    /**
+     * Scenario 8: Test typed game events
+     *
+     * This test verifies:
+     * 1. every change is published synchronously with what changed by default
+     * 2. with a dispatcher, a burst of changes is delivered once, after redundant events are dropped
+     * 3. removed listeners get nothing
+     */
+    @Test
+    public void testGameEvents() {
+        List<GameEvent> received = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        GameEventListener listener = events -> {
+            batchSizes.add(events.size());
+            received.addAll(events);
+        };
+        model.getEventBus().addListener(listener);
+
+        String word = model.findPath().get(1);
+        model.submitWord(word);
+        model.setShowPath(true);
+        model.resetGame();
+        assertEquals(Arrays.asList(1, 1, 1), batchSizes);
+        GameEvent.AttemptAdded added = (GameEvent.AttemptAdded) received.get(0);
+        assertEquals(0, added.getIndex());
+        assertEquals(word, added.getWord());
+        assertEquals(model.getFeedback(word)[0], Feedback.stateAt(added.getFeedback(), 0) - 1);
+        assertEquals(GameEvent.Flag.SHOW_PATH, ((GameEvent.FlagChanged) received.get(1)).getFlag());
+        assertTrue(received.get(2) instanceof GameEvent.GameReset);
+
+        // Queue deliveries like SwingUtilities.invokeLater, then run them as the next frame would
+        List<Runnable> frame = new ArrayList<>();
+        model.getEventBus().setDispatcher(frame::add);
+        received.clear();
+        batchSizes.clear();
+
+        model.submitWord(word);
+        model.setShowErrorMessages(false);
+        model.setShowPath(false);
+        model.setShowErrorMessages(true);
+        model.setRandomWords(false);
+        assertEquals(1, frame.size());
+        assertTrue(received.isEmpty());
+
+        frame.remove(0).run();
+        assertEquals(Arrays.asList(4), batchSizes);
+        assertEquals("FlagChanged(SHOW_PATH, false)", received.get(0).toString());
+        assertEquals("FlagChanged(SHOW_ERROR_MESSAGES, true)", received.get(1).toString());
+        assertEquals("FlagChanged(RANDOM_WORDS, false)", received.get(2).toString());
+        assertEquals("GameStarted(sale, opal)", received.get(3).toString());
+
+        model.getEventBus().removeListener(listener);
+        model.resetGame();
+        frame.remove(0).run();
+        assertEquals(4, received.size());
+    }
+
+    /**
+     * Scenario 9: Test path searches that run off the model's thread
+     *
+     * This test verifies:
+     * 1. findPathTask() keeps the words of the game it was made for, even after a new game starts
+     * 2. an interrupted search stops with a CancellationException and leaves nothing behind in the cache
+     * 3. an uninterrupted run of the same task finds the optimal path
+     */
+    @Test
+    public void testFindPathTask() throws Exception {
+        model.setPathFinder("bfs");
+        model.setRandomSeed(19);
+        model.newGame(8);
+        String startWord = model.getStartWord();
+        String targetWord = model.getTargetWord();
+        Callable<List<String>> task = model.findPathTask();
+        model.newGame(3);
+
+        Thread.currentThread().interrupt();
+        try {
+            task.call();
+            fail("Interrupted search should be cancelled");
+        } catch (CancellationException expected) {
+            assertTrue(Thread.interrupted());
+        }
+
+        List<String> path = task.call();
+        assertEquals(9, path.size());
+        assertEquals(startWord, path.get(0));
+        assertEquals(targetWord, path.get(8));
+        assertEquals(4, model.findPath().size());
+    }
+
+    /**
+     * Scenario 10: Test the instrumented model
+     *
+     * This test verifies:
+     * 1. calls are passed to the model and counted as accepted or rejected
+     * 2. histogram percentiles are within one bucket of the recorded latencies
+     * 3. the stats are readable through the platform MBean server
+     */
+    @Test
+    public void testInstrumentedModel() throws Exception {
+        InstrumentedModel instrumented = new InstrumentedModel(model);
+        ModelStats stats = instrumented.getStats();
+        String word = instrumented.findPath().get(1);
+
+        assertFalse(instrumented.isValidWord("zzzz"));
+        assertTrue(instrumented.isValidWord(word));
+        assertTrue(instrumented.submitWord(word));
+        assertEquals(1, model.getCurrentAttempt());
+        try {
+            instrumented.newGame(250);
+            fail("Impossible difficulty should be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(1, stats.getRejected(ModelStats.Operation.NEW_GAME));
+        }
+        assertEquals(2, stats.getCalls(ModelStats.Operation.IS_VALID_WORD));
+        assertEquals(1, stats.getRejected(ModelStats.Operation.IS_VALID_WORD));
+        assertEquals(1, stats.getAccepted(ModelStats.Operation.SUBMIT_WORD));
+        assertEquals(1, stats.getAccepted(ModelStats.Operation.FIND_PATH));
+        assertTrue(stats.format().contains("submitWord"));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(50_000.5, histogram.getMean(), 1e-9);
+        assertEquals(100_000, histogram.getMax());
+        long p50 = histogram.getPercentile(0.5);
+        long p99 = histogram.getPercentile(0.99);
+        assertTrue(p50 >= 50_000 && p50 <= 50_000 * 17 / 16);
+        assertTrue(p99 >= 99_000 && p99 <= 100_000);
+
+        stats.register("test");
+        try {
+            ObjectName name = new ObjectName("weaver:type=ModelStats,name=\"test\"");
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(stats.getTotalCalls(), server.getAttribute(name, "TotalCalls"));
+            CompositeData[] operations = (CompositeData[]) server.getAttribute(name, "Operations");
+            assertEquals("submitWord", operations[0].get("operation"));
+            assertEquals(1L, operations[0].get("calls"));
+        } finally {
+            stats.unregister();
+        }
+    }
+
+    /**
+     * Scenario 11: Test Flight Recorder events
+     *
+     * This test verifies:
+     * 1. with the thresholds lowered to zero, path lookups and feedback are recorded with their fields
+     * 2. with the default thresholds, fast calls are left out of the recording
+     */
+    @Test
+    public void testFlightRecorderEvents() throws Exception {
+        Path file = Files.createTempFile("weaver", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("weaver.PathSearch").withThreshold(Duration.ZERO);
+            recording.enable("weaver.Feedback").withThreshold(Duration.ZERO);
+            recording.start();
+            model.findPath();
+            model.getFeedback("opal");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent search = events.stream()
+                .filter(e -> e.getEventType().getName().equals("weaver.PathSearch")).findFirst().get();
+        assertEquals("sale", search.getString("startWord"));
+        assertEquals("opal", search.getString("targetWord"));
+        assertEquals(model.findPath().size(), search.getInt("pathLength"));
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("weaver.Feedback")
+                && e.getString("word").equals("opal")));
+
+        // Default thresholds: a cached lookup and a feedback computation are far below them
+        try (Recording recording = new Recording()) {
+            recording.enable("weaver.PathSearch");
+            recording.enable("weaver.Feedback");
+            recording.start();
+            model.findPath();
+            model.getFeedback("opal");
+            recording.stop();
+            recording.dump(file);
+        }
+        assertTrue(RecordingFile.readAllEvents(file).isEmpty());
+        Files.delete(file);
+    }
+
+    /**
+     * Scenario 12: Test the game journal
+     *
+     * This test verifies:
+     * 1. a new model attached to a reopened journal resumes the same game, across snapshots
+     * 2. a torn record at the end of the journal is dropped without losing the records before it
+     * 3. a finished game is not resumed
+     */
+    @Test
+    public void testGameJournal() throws Exception {
+        Path directory = Files.createTempDirectory("weaver-journal");
+        Path file = directory.resolve("game.journal");
+        List<String> ladder = model.findPath();
+
+        // A snapshot every 5 records, so the games below cross several of them
+        try (GameJournal journal = GameJournal.open(file, 5)) {
+            assertNull(journal.getRecoveredGame());
+            journal.attach(model);
+            for (int round = 0; round < 3; round++) {
+                model.submitWord(ladder.get(1));
+                model.submitWord(ladder.get(2));
+                model.resetGame();
+            }
+            model.submitWord(ladder.get(1));
+            model.submitWord(ladder.get(2));
+        }
+        assertTrue(Files.exists(directory.resolve("game.journal.snapshot")));
+
+        // Half a record, as a crash in the middle of a write would leave
+        Files.write(file, new byte[]{0, 0, 0, 9, GameJournal.ATTEMPT, 1}, StandardOpenOption.APPEND);
+
+        Model resumed = new Model();
+        try (GameJournal journal = GameJournal.open(file, 5)) {
+            assertTrue(journal.attach(resumed));
+            assertEquals("sale", resumed.getStartWord());
+            assertEquals(ladder.subList(1, 3), resumed.getAttempts());
+            for (int i = 3; i < ladder.size(); i++) {
+                resumed.submitWord(ladder.get(i));
+            }
+            assertTrue(resumed.hasWon());
+            journal.sync();
+        }
+
+        try (GameJournal journal = GameJournal.open(file, 5)) {
+            assertTrue(journal.getRecoveredGame().isFinished());
+            assertFalse(journal.attach(new Model()));
+        }
+    }
+
+    /**
+     * Scenario 13: Test the delta-compressed game record codec
+     *
+     * This test verifies:
+     * 1. games written through a writer read back unchanged, in order, followed by the end of the stream
+     * 2. each attempt takes 7 bits, so a game takes a fraction of its size as text
+     * 3. a game with an attempt that is not a one-letter move is rejected without touching the stream
+     * 4. a truncated stream or one written against another dictionary is an IOException
+     */
+    @Test
+    public void testGameRecordCodec() throws Exception {
+        Lexicon lexicon = LexiconCache.shared("dictionary.txt");
+        List<String> ladder = model.findPath();
+        for (int i = 1; i < ladder.size(); i++) {
+            model.submitWord(ladder.get(i));
+        }
+        GameRecord won = GameRecord.of(model);
+        GameRecord unplayed = GameRecord.of("sale", "opal", new ArrayList<>());
+        assertTrue(won.isWon());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GameRecordCodec.Writer writer = GameRecordCodec.newWriter(bytes, lexicon);
+        long header = writer.getByteCount();
+        writer.write(won);
+        long wonSize = writer.getByteCount() - header;
+        try {
+            writer.write("sale", "opal", Arrays.asList("bale", "mile"));
+            fail("An attempt changing two letters should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // The record is checked before anything is written
+        }
+        writer.write(unplayed);
+        writer.close();
+
+        int attempts = won.getAttemptCount();
+        assertTrue(wonSize <= 2 + 2 + 1 + (attempts * GameRecordCodec.MOVE_BITS + 7) / 8);
+        assertTrue(wonSize * 3 < (attempts + 2) * 5);
+        assertEquals(2, writer.getRecordCount());
+
+        try (GameRecordCodec.Reader reader = GameRecordCodec.newReader(
+                new ByteArrayInputStream(bytes.toByteArray()), lexicon)) {
+            GameRecord read = reader.read();
+            assertEquals(won, read);
+            assertEquals(ladder.subList(1, ladder.size()), read.getAttempts());
+            assertEquals(unplayed, reader.read());
+            assertNull(reader.read());
+        }
+
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), (int) (header + wonSize - 1));
+        try (GameRecordCodec.Reader reader = GameRecordCodec.newReader(new ByteArrayInputStream(truncated), lexicon)) {
+            reader.read();
+            fail("A truncated record should not be read");
+        } catch (EOFException expected) {
+            // The stream ended part way through the first record
+        }
+
+        Lexicon other = Lexicon.fromWords(Arrays.asList("sale", "bale", "opal"));
+        try {
+            GameRecordCodec.newReader(new ByteArrayInputStream(bytes.toByteArray()), other);
+            fail("Records written against another dictionary should not be read");
+        } catch (IOException expected) {
+            // Word ids would point at the wrong words
+        }
+    }
+
+    /**
+     * Scenario 14: Test that starting a game does not search the word graph
+     *
+     * This test verifies:
+     * 1. random games start without building any distance map
+     * 2. the first hint of a game builds its target's map, and the hint still leads to the target
+     */
+    @Test
+    public void testGamesStartWithoutHintSearch() {
+        // A lexicon of its own, so no other test has filled its hint cache
+        Lexicon lexicon = Lexicon.load("dictionary.txt");
+        Model fresh = new Model(lexicon);
+        fresh.setRandomWords(true);
+        for (int i = 0; i < 50; i++) {
+            fresh.newGame();
+        }
+        assertEquals(0, lexicon.hints().size());
+
+        String hint = fresh.getHint();
+        assertEquals(1, lexicon.hints().size());
+        int distance = fresh.getDistanceToTarget();
+        assertTrue(fresh.submitWord(hint));
+        assertEquals(distance - 1, fresh.getDistanceToTarget());
+    }
+
+    /**
+     * Scenario 15: Test choosing where a model's hints come from
+     *
+     * This test verifies:
+     * 1. loading a dictionary's distance table does not change how other models find their hints
+     * 2. a model that asks for table hints builds no distance map, and its hints still lead to the target
+     */
+    @Test
+    public void testTableHintsAreChosenPerModel() {
+        // A lexicon of its own, so no other test has filled its hint cache
+        Lexicon lexicon = Lexicon.load("dictionary.txt");
+        Model mapHints = new Model(lexicon);
+        Model tableHints = new Model(lexicon);
+        tableHints.setTableHints(true);
+        assertNotNull(lexicon.loadedDistances());
+
+        assertNotNull(mapHints.getHint());
+        assertEquals(1, lexicon.hints().size());
+
+        tableHints.setRandomWords(true);
+        for (int i = 0; i < 20; i++) {
+            tableHints.newGame();
+            int distance = tableHints.getDistanceToTarget();
+            assertEquals(distance, tableHints.getRemainingPath().size());
+            while (!tableHints.hasWon()) {
+                assertTrue(tableHints.submitWord(tableHints.getHint()));
+            }
+            assertEquals(distance, tableHints.getCurrentAttempt());
+        }
+        assertEquals(1, lexicon.hints().size());
+    }
 }
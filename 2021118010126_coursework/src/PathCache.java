@@ -0,0 +1,139 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded, thread-safe LRU cache of solved paths keyed by the packed (start, target) word codes
+// One cache belongs to each Lexicon, so every session over that lexicon shares it and a reloaded
+// lexicon starts with an empty cache. Entries are split over independently locked segments,
+// each evicting its own least recently used entry, to keep contention low between sessions
+public final class PathCache {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // One LRU map and its lock; callers hold the segment's monitor around every call
+    // The map is held rather than extended, so the segment is not a Serializable LinkedHashMap
+    private final class Segment {
+        // Access order, so iteration starts at the least recently used entry
+        private final LinkedHashMap<Long, List<String>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int capacity;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        List<String> get(long key) {
+            return entries.get(key);
+        }
+
+        void put(long key, List<String> path) {
+            entries.put(key, path);
+            if (entries.size() > capacity) {
+                Iterator<Long> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        void clear() {
+            entries.clear();
+        }
+
+        int size() {
+            return entries.size();
+        }
+    }
+
+    public PathCache(int capacity) {
+        // Precondition: every segment can hold at least one path
+        assert capacity >= SEGMENTS : "Capacity must be at least " + SEGMENTS;
+
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(capacity / SEGMENTS);
+        }
+    }
+
+    // Packs a start and target word code into one key
+    public static long key(int startCode, int targetCode) {
+        return ((long) startCode << (Lexicon.BITS_PER_LETTER * Lexicon.WORD_LENGTH)) | targetCode;
+    }
+
+    // Returns the cached path for a key, or null on a miss
+    public List<String> get(long key) {
+        Segment segment = segmentFor(key);
+        List<String> path;
+        synchronized (segment) {
+            path = segment.get(key);
+        }
+
+        if (path == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return path;
+    }
+
+    // Stores a solved path; the cache keeps an unmodifiable copy
+    public void put(long key, List<String> path) {
+        List<String> copy = Collections.unmodifiableList(new ArrayList<>(path));
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, copy);
+        }
+    }
+
+    // Drops every cached path, keeping the counters
+    public void invalidate() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    // Returns the number of cached paths
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private Segment segmentFor(long key) {
+        // Mix the bits so consecutive codes spread over all segments
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return segments[(int) (hash >>> 60) & (SEGMENTS - 1)];
+    }
+
+    @Override
+    public String toString() {
+        return "PathCache[size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses()
+                + ", evictions=" + getEvictions() + "]";
+    }
+}
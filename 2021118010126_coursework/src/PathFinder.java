@@ -0,0 +1,53 @@
+import java.util.concurrent.CancellationException;
+
+// Strategy for finding a shortest word ladder between two words of a Lexicon
+// Implementations keep search state between calls and must not be shared between threads
+// A search running on an interrupted thread stops early with a CancellationException
+public interface PathFinder {
+    // Name of the finder used when none is configured
+    String DEFAULT = "bidirectional";
+
+    // System property that selects the finder for new models
+    String PROPERTY = "weaver.pathfinder";
+
+    // Vertices expanded between checks for interruption; a power of two
+    int CANCEL_CHECK_INTERVAL = 1024;
+
+    // Returns the word ids of a shortest path from start to target, or an empty array if there is none
+    int[] findPath(Lexicon lexicon, int start, int target);
+
+    // Returns the number of vertices expanded by the last search
+    int getNodesExpanded();
+
+    // Returns the name this finder is selected by
+    String getName();
+
+    // Creates a finder by name: bfs, bidirectional or astar
+    static PathFinder create(String name) {
+        switch (name.toLowerCase()) {
+            case "bfs":
+                return new BreadthFirstPathFinder();
+            case "bidirectional":
+            case "bidi":
+                return new BidirectionalPathFinder();
+            case "astar":
+            case "a*":
+                return new AStarPathFinder();
+            default:
+                throw new IllegalArgumentException("Unknown path finder: " + name + " (use bfs, bidirectional or astar)");
+        }
+    }
+
+    // Creates the finder named by the weaver.pathfinder system property, or the default one
+    static PathFinder fromConfiguration() {
+        return create(System.getProperty(PROPERTY, DEFAULT));
+    }
+
+    // Called by finders after each expansion; throws CancellationException if the thread has been interrupted,
+    // checking only every CANCEL_CHECK_INTERVAL expansions to keep the search loop cheap
+    static void checkCancelled(int nodesExpanded) {
+        if ((nodesExpanded & (CANCEL_CHECK_INTERVAL - 1)) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Path search interrupted after " + nodesExpanded + " expansions");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+import java.util.SplittableRandom;
+
+// Compares explored-node counts and run time of the path finders over random word pairs
+// Usage: java PathFinderBenchmark [dictionary.txt] [pairs] [seed]
+public class PathFinderBenchmark {
+    private static final String[] FINDERS = {"bfs", "bidirectional", "astar"};
+
+    public static void main(String[] args) {
+        String path = args.length > 0 ? args[0] : "dictionary.txt";
+        int pairs = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        Lexicon lexicon = LexiconCache.shared(path);
+        WordGraph graph = lexicon.graph();
+        System.out.println("Words: " + lexicon.size() + ", edges: " + graph.edgeCount() / 2 + ", pairs: " + pairs);
+
+        int[] starts = new int[pairs];
+        int[] targets = new int[pairs];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < pairs; i++) {
+            starts[i] = random.nextInt(lexicon.size());
+            targets[i] = random.nextInt(lexicon.size());
+        }
+
+        // Plain breadth-first search is the reference every other finder must match
+        PathFinder reference = PathFinder.create("bfs");
+        int[] lengths = new int[pairs];
+        int unreachable = 0;
+        for (int i = 0; i < pairs; i++) {
+            lengths[i] = reference.findPath(lexicon, starts[i], targets[i]).length;
+            if (lengths[i] == 0) {
+                unreachable++;
+            }
+        }
+        System.out.println("Unreachable pairs: " + unreachable);
+
+        System.out.printf("%-15s %15s %15s %15s%n", "Finder", "avg expanded", "avg unreachable", "avg micros");
+        long baseline = 0;
+        for (String name : FINDERS) {
+            PathFinder finder = PathFinder.create(name);
+
+            // Warm up so the timings below measure compiled code
+            for (int i = 0; i < Math.min(pairs, 2000); i++) {
+                finder.findPath(lexicon, starts[i], targets[i]);
+            }
+
+            long expanded = 0;
+            long unreachableExpanded = 0;
+            long nanos = 0;
+            for (int i = 0; i < pairs; i++) {
+                long begin = System.nanoTime();
+                int length = finder.findPath(lexicon, starts[i], targets[i]).length;
+                nanos += System.nanoTime() - begin;
+
+                if (length != lengths[i]) {
+                    throw new IllegalStateException(name + " path length differs for " + lexicon.word(starts[i])
+                            + " -> " + lexicon.word(targets[i]) + ": " + lengths[i] + " vs " + length);
+                }
+                expanded += finder.getNodesExpanded();
+                if (length == 0) {
+                    unreachableExpanded += finder.getNodesExpanded();
+                }
+            }
+
+            if (baseline == 0) {
+                baseline = expanded;
+            }
+            System.out.printf("%-15s %15.1f %15.1f %15.2f   (%.1fx fewer nodes than bfs)%n", name,
+                    (double) expanded / pairs,
+                    unreachable == 0 ? 0.0 : (double) unreachableExpanded / unreachable,
+                    nanos / 1000.0 / pairs,
+                    (double) baseline / Math.max(1, expanded));
+        }
+    }
+}
@@ -0,0 +1,277 @@
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+public class PathFinderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Lexicon lexicon;
+
+    @Before
+    public void setUp() {
+        lexicon = LexiconCache.shared("dictionary.txt");
+    }
+
+    /**
+     * Scenario 1: Test every path finder against plain breadth-first search
+     *
+     * This test verifies:
+     * 1. bidirectional and A* agree with BFS on the optimal path length for random pairs,
+     *    including unreachable ones
+     * 2. every returned path is a valid ladder from start to target
+     */
+    @Test
+    public void testFindersMatchBreadthFirst() {
+        PathFinder bfs = PathFinder.create("bfs");
+        PathFinder[] finders = {PathFinder.create("bidirectional"), PathFinder.create("astar")};
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < 500; i++) {
+            int start = random.nextInt(lexicon.size());
+            int target = random.nextInt(lexicon.size());
+            int[] expected = bfs.findPath(lexicon, start, target);
+
+            for (PathFinder finder : finders) {
+                int[] actual = finder.findPath(lexicon, start, target);
+                assertEquals(finder.getName() + " optimal length for " + lexicon.word(start) + " -> " + lexicon.word(target),
+                        expected.length, actual.length);
+                assertLadder(actual, start, target);
+            }
+        }
+    }
+
+    /**
+     * Scenario 2: Test trivial and default pairs
+     *
+     * This test verifies:
+     * 1. a word is a one-word path to itself
+     * 2. the default sale -> opal game has a path
+     */
+    @Test
+    public void testTrivialAndDefaultPairs() {
+        int sale = lexicon.idOf(Lexicon.encode("sale"));
+        int opal = lexicon.idOf(Lexicon.encode("opal"));
+
+        for (String name : new String[]{"bfs", "bidirectional", "astar"}) {
+            PathFinder finder = PathFinder.create(name);
+            assertArrayEquals(new int[]{sale}, finder.findPath(lexicon, sale, sale));
+
+            int[] path = finder.findPath(lexicon, sale, opal);
+            assertTrue("sale -> opal should be solvable", path.length > 1);
+            assertLadder(path, sale, opal);
+        }
+    }
+
+    /**
+     * Scenario 3: Test selecting a finder through the model
+     *
+     * This test verifies:
+     * 1. the finder can be switched by name and unknown names are rejected
+     * 2. findPath records statistics for the finder that ran
+     */
+    @Test
+    public void testModelFinderSelectionAndStats() {
+        Model model = new Model(lexicon);
+        assertEquals(PathFinder.DEFAULT, model.getPathFinder());
+
+        model.setPathFinder("astar");
+        assertEquals("astar", model.getPathFinder());
+        assertNull(model.getLastPathStats());
+
+        // Start from an empty cache so the finder actually runs
+        lexicon.pathCache().invalidate();
+        List<String> path = model.findPath();
+        PathStats stats = model.getLastPathStats();
+        assertNotNull(stats);
+        assertEquals("astar", stats.getFinder());
+        assertEquals(path.size(), stats.getPathLength());
+        assertTrue(stats.getNodesExpanded() > 0);
+
+        try {
+            model.setPathFinder("dfs");
+            fail("Unknown finder should be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("astar", model.getPathFinder());
+        }
+    }
+
+    /**
+     * Scenario 4: Test the shared solution cache
+     *
+     * This test verifies:
+     * 1. a second model with the same words is answered from the cache
+     * 2. the cache counts hits and misses and returns independent copies
+     * 3. a small cache evicts its least recently used entries
+     */
+    @Test
+    public void testPathCacheSharedBetweenModels() {
+        PathCache cache = lexicon.pathCache();
+        cache.invalidate();
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+
+        Model first = new Model(lexicon);
+        List<String> path = first.findPath();
+        assertEquals(misses + 1, cache.getMisses());
+        assertNotEquals(PathStats.CACHE, first.getLastPathStats().getFinder());
+
+        Model second = new Model(lexicon);
+        List<String> cached = second.findPath();
+        assertEquals(hits + 1, cache.getHits());
+        assertEquals(PathStats.CACHE, second.getLastPathStats().getFinder());
+        assertEquals(path, cached);
+
+        // Callers get their own copy
+        cached.clear();
+        assertEquals(path, second.findPath());
+
+        PathCache small = new PathCache(16);
+        for (int i = 0; i < 64; i++) {
+            small.put(PathCache.key(i, i), path);
+        }
+        assertTrue(small.size() <= 16);
+        assertEquals(64 - small.size(), small.getEvictions());
+    }
+
+    /**
+     * Scenario 5: Test the all-pairs distance table
+     *
+     * This test verifies:
+     * 1. table distances equal shortest path lengths, including unreachable pairs
+     * 2. a written table maps back with the same contents and is rejected for another lexicon
+     * 3. the model answers distances from the table
+     */
+    @Test
+    public void testDistanceTableMatchesSearch() throws IOException {
+        DistanceTable table = DistanceTable.generate(lexicon, 4);
+        PathFinder bfs = PathFinder.create("bfs");
+        SplittableRandom random = new SplittableRandom(11);
+
+        for (int i = 0; i < 300; i++) {
+            int start = random.nextInt(lexicon.size());
+            int target = random.nextInt(lexicon.size());
+            int length = bfs.findPath(lexicon, start, target).length;
+            assertEquals(length - 1, table.distance(start, target));
+        }
+
+        Path file = folder.getRoot().toPath().resolve("words.dist");
+        DistanceTable written = DistanceTable.generate(lexicon, file, 2);
+        DistanceTable mapped = DistanceTable.map(file, lexicon);
+        assertNotNull(mapped);
+        for (int i = 0; i < 300; i++) {
+            int start = random.nextInt(lexicon.size());
+            int target = random.nextInt(lexicon.size());
+            assertEquals(table.distance(start, target), written.distance(start, target));
+            assertEquals(table.distance(start, target), mapped.distance(start, target));
+        }
+        assertNull(DistanceTable.map(file, Lexicon.fromWords(Arrays.asList("sale", "pale"))));
+
+        Model model = new Model(lexicon);
+        assertEquals(model.findPath().size() - 1, model.getDistance("sale", "opal"));
+        assertEquals(0, model.getDistance("sale", "sale"));
+        assertEquals(DistanceTable.UNREACHABLE, model.getDistance("sale", "xxxx"));
+    }
+
+    /**
+     * Scenario 6: Test the daily puzzle bank
+     *
+     * This test verifies:
+     * 1. the same seed writes the same bank, whatever the parallelism
+     * 2. puzzles never repeat a word pair and cycle through every difficulty
+     * 3. recorded lengths and optimal path counts match the distance table
+     * 4. dates outside the bank have no puzzle
+     * 5. the shared bank for a file is mapped again once the file is rebuilt
+     */
+    @Test
+    public void testPuzzleBank() throws IOException {
+        LocalDate first = LocalDate.of(2024, 1, 1);
+        Path fileA = folder.getRoot().toPath().resolve("a.bin");
+        Path fileB = folder.getRoot().toPath().resolve("b.bin");
+        PuzzleBank bank = PuzzleBankBuilder.build(lexicon, fileA, first, 120, 42, 2, 5, 4);
+        PuzzleBankBuilder.build(lexicon, fileB, first, 120, 42, 2, 5, 1);
+        assertArrayEquals(Files.readAllBytes(fileA), Files.readAllBytes(fileB));
+
+        assertEquals(120, bank.size());
+        assertEquals(first, bank.getFirstDate());
+        assertNull(bank.puzzleFor(first.minusDays(1)));
+        assertNull(bank.puzzleFor(first.plusDays(120)));
+
+        DistanceTable table = lexicon.distances();
+        Set<String> pairs = new HashSet<>();
+        int[] perLevel = new int[6];
+        for (int day = 0; day < 120; day++) {
+            PuzzleBank.Puzzle puzzle = bank.puzzleFor(first.plusDays(day));
+            int start = lexicon.idOf(Lexicon.encode(puzzle.getStartWord()));
+            int target = lexicon.idOf(Lexicon.encode(puzzle.getTargetWord()));
+
+            assertEquals(table.distance(start, target), puzzle.getMoves());
+            assertEquals(countOptimalPaths(table, start, target), puzzle.getOptimalPaths());
+            assertTrue(pairs.add(Math.min(start, target) + "-" + Math.max(start, target)));
+            perLevel[puzzle.getMoves()]++;
+        }
+        for (int level = 2; level <= 5; level++) {
+            assertEquals(30, perLevel[level]);
+        }
+
+        PuzzleBank shared = PuzzleBank.shared(fileA.toString());
+        assertSame(shared, PuzzleBank.shared(fileA.toString()));
+        PuzzleBankBuilder.build(lexicon, fileA, first.plusDays(7), 60, 43, 2, 5, 1);
+        PuzzleBank rebuilt = PuzzleBank.shared(fileA.toString());
+        assertEquals(60, rebuilt.size());
+        assertEquals(first.plusDays(7), rebuilt.getFirstDate());
+        Files.delete(fileA);
+        assertNull(PuzzleBank.shared(fileA.toString()));
+    }
+
+    // Counts shortest ladders by stepping to every neighbour one move closer to the target
+    private int countOptimalPaths(DistanceTable table, int start, int target) {
+        if (start == target) {
+            return 1;
+        }
+        WordGraph graph = lexicon.graph();
+        int count = 0;
+        for (int edge = graph.edgeStart(start); edge < graph.edgeEnd(start); edge++) {
+            int next = graph.target(edge);
+            if (table.distance(next, target) == table.distance(start, target) - 1) {
+                count += countOptimalPaths(table, next, target);
+            }
+        }
+        return count;
+    }
+
+    // Checks that a path runs from start to target changing one letter per step
+    private void assertLadder(int[] path, int start, int target) {
+        if (path.length == 0) {
+            return;
+        }
+        assertEquals(start, path[0]);
+        assertEquals(target, path[path.length - 1]);
+
+        for (int i = 1; i < path.length; i++) {
+            String prevWord = lexicon.word(path[i - 1]);
+            String currWord = lexicon.word(path[i]);
+
+            int diffCount = 0;
+            for (int j = 0; j < 4; j++) {
+                if (prevWord.charAt(j) != currWord.charAt(j)) {
+                    diffCount++;
+                }
+            }
+            assertEquals("Each step should differ by exactly one letter", 1, diffCount);
+        }
+    }
+}
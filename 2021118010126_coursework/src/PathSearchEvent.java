@@ -0,0 +1,43 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+// Flight Recorder event for one optimal-path lookup, whether it was answered by the cache or a search
+@Name("weaver.PathSearch")
+@Label("Path Search")
+@Category({"Weaver", "Path"})
+@Description("An optimal word ladder was looked up or searched for")
+@Threshold("1 ms")
+public final class PathSearchEvent extends Event {
+    @Label("Start Word")
+    String startWord;
+
+    @Label("Target Word")
+    String targetWord;
+
+    @Label("Finder")
+    @Description("Path finder that searched, or cache if the path was already known")
+    String finder;
+
+    @Label("Nodes Expanded")
+    int nodesExpanded;
+
+    @Label("Path Length")
+    @Description("Words on the path including start and target, 0 if there is no ladder")
+    int pathLength;
+
+    // Fills in and commits the event if recording is on and the lookup was slower than the threshold
+    void report(String startWord, String targetWord, PathStats stats) {
+        if (shouldCommit()) {
+            this.startWord = startWord;
+            this.targetWord = targetWord;
+            this.finder = stats.getFinder();
+            this.nodesExpanded = stats.getNodesExpanded();
+            this.pathLength = stats.getPathLength();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+// Statistics for one findPath query
+public final class PathStats {
+    // Finder name reported when the path came from the PathCache
+    public static final String CACHE = "cache";
+
+    private final String finder;
+    private final int nodesExpanded;
+    private final long elapsedNanos;
+    private final int pathLength;
+
+    public PathStats(String finder, int nodesExpanded, long elapsedNanos, int pathLength) {
+        this.finder = finder;
+        this.nodesExpanded = nodesExpanded;
+        this.elapsedNanos = elapsedNanos;
+        this.pathLength = pathLength;
+    }
+
+    // Returns the name of the path finder that answered the query, or CACHE
+    public String getFinder() {
+        return finder;
+    }
+
+    // Returns the number of vertices the search expanded
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    // Returns the wall-clock time of the search in nanoseconds
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Returns the number of words in the path found, or 0 if there was none
+    public int getPathLength() {
+        return pathLength;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s expanded %d nodes in %.3f ms", finder, nodesExpanded, elapsedNanos / 1e6);
+    }
+}
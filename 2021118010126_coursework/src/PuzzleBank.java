@@ -0,0 +1,178 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Memory-mapped file of one published puzzle per day, written by PuzzleBankBuilder
+// Records have a fixed size and consecutive dates, so the puzzle for a date is read at a computed offset
+//
+// File layout (big-endian):
+//   int  magic          "WPZB"
+//   int  version
+//   long first day      epoch day of the first record
+//   int  record count
+//   int  reserved
+//   records, RECORD_SIZE bytes each:
+//     int   start word code
+//     int   target word code
+//     int   number of optimal paths, saturating at Integer.MAX_VALUE
+//     short optimal number of moves
+//     short reserved
+public final class PuzzleBank {
+    static final int MAGIC = 0x57505A42;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int RECORD_SIZE = 16;
+
+    private static final ConcurrentHashMap<Path, PuzzleBank> OPEN_BANKS = new ConcurrentHashMap<>();
+
+    private final ByteBuffer records;
+    private final long firstDay;
+    private final int count;
+    private final BasicFileAttributes mapped;  // The file as it was when mapped, to notice it being rebuilt
+
+    // One day's puzzle
+    public static final class Puzzle {
+        private final LocalDate date;
+        private final String startWord;
+        private final String targetWord;
+        private final int moves;
+        private final int optimalPaths;
+
+        Puzzle(LocalDate date, String startWord, String targetWord, int moves, int optimalPaths) {
+            this.date = date;
+            this.startWord = startWord;
+            this.targetWord = targetWord;
+            this.moves = moves;
+            this.optimalPaths = optimalPaths;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public String getStartWord() {
+            return startWord;
+        }
+
+        public String getTargetWord() {
+            return targetWord;
+        }
+
+        // Returns the number of moves in an optimal solution
+        public int getMoves() {
+            return moves;
+        }
+
+        // Returns how many different optimal solutions exist
+        public int getOptimalPaths() {
+            return optimalPaths;
+        }
+
+        @Override
+        public String toString() {
+            return date + " " + startWord + " -> " + targetWord + " (" + moves + " moves, "
+                    + optimalPaths + " optimal paths)";
+        }
+    }
+
+    private PuzzleBank(ByteBuffer records, long firstDay, int count, BasicFileAttributes mapped) {
+        this.records = records;
+        this.firstDay = firstDay;
+        this.count = count;
+        this.mapped = mapped;
+    }
+
+    // Returns the bank at a path, mapping it once per process and again whenever the file is replaced or
+    // rewritten, for instance by PuzzleBankBuilder; returns null if there is no usable file
+    public static PuzzleBank shared(String path) {
+        Path key = Paths.get(path).toAbsolutePath().normalize();
+        PuzzleBank bank = OPEN_BANKS.get(key);
+        if (bank != null && bank.isCurrent(key)) {
+            return bank;
+        }
+
+        try {
+            bank = map(key);
+        } catch (IOException e) {
+            System.err.println("Error loading puzzle bank: " + e.getMessage());
+            bank = null;
+        }
+        if (bank == null) {
+            OPEN_BANKS.remove(key);
+            return null;
+        }
+        OPEN_BANKS.put(key, bank);
+        return bank;
+    }
+
+    // Checks if the file is still the one this bank mapped: the same file, size and modification time
+    private boolean isCurrent(Path file) {
+        try {
+            BasicFileAttributes now = Files.readAttributes(file, BasicFileAttributes.class);
+            return now.size() == mapped.size()
+                    && now.lastModifiedTime().equals(mapped.lastModifiedTime())
+                    && (now.fileKey() == null || now.fileKey().equals(mapped.fileKey()));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Maps a bank file; returns null if it is missing or not a bank
+    static PuzzleBank map(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        // Read before mapping, so a file replaced in between is only ever taken for older than it is
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return null;
+            }
+
+            long firstDay = buffer.getLong(8);
+            int count = buffer.getInt(16);
+            if (count < 0 || channel.size() != HEADER_SIZE + (long) count * RECORD_SIZE) {
+                return null;
+            }
+            return new PuzzleBank(buffer, firstDay, count, attributes);
+        }
+    }
+
+    // Returns the puzzle for a date, or null if the bank does not cover it
+    public Puzzle puzzleFor(LocalDate date) {
+        long index = date.toEpochDay() - firstDay;
+        if (index < 0 || index >= count) {
+            return null;
+        }
+
+        int offset = HEADER_SIZE + (int) index * RECORD_SIZE;
+        return new Puzzle(date,
+                Lexicon.decode(records.getInt(offset)),
+                Lexicon.decode(records.getInt(offset + 4)),
+                records.getShort(offset + 12),
+                records.getInt(offset + 8));
+    }
+
+    // Returns the first date with a puzzle
+    public LocalDate getFirstDate() {
+        return LocalDate.ofEpochDay(firstDay);
+    }
+
+    // Returns the number of days covered
+    public int size() {
+        return count;
+    }
+}
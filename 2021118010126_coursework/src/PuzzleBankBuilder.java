@@ -0,0 +1,243 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Offline tool that writes a PuzzleBank: one solvable puzzle per day, never repeating a word pair
+// Difficulties cycle through every level in the requested range, shuffled within each cycle
+// Pairs are drawn sequentially from one seeded generator, which is cheap and keeps the bank
+// deterministic; counting the optimal paths of each puzzle is the expensive part and runs in parallel
+public final class PuzzleBankBuilder {
+    // Puzzles counted by one fork/join leaf task
+    private static final int PUZZLES_PER_TASK = 16;
+
+    private PuzzleBankBuilder() {
+    }
+
+    // Generates puzzles for the given days and writes them to a bank file, replacing any existing one
+    public static PuzzleBank build(Lexicon lexicon, Path file, LocalDate firstDate, int days, long seed,
+                                   int minMoves, int maxMoves, int parallelism) throws IOException {
+        int[] pairs = choosePairs(lexicon.puzzles(), days, seed, minMoves, maxMoves);
+        int[] moves = new int[days];
+        int[] pathCounts = new int[days];
+
+        // Copy the graph out of its buffers once, as every count walks part of it
+        WordGraph graph = lexicon.graph();
+        int[] offsets = new int[graph.size() + 1];
+        int[] edges = new int[graph.edgeCount()];
+        graph.offsetTable().get(offsets);
+        graph.edgeTable().get(edges);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new CountTask(offsets, edges, pairs, moves, pathCounts, 0, days));
+        } finally {
+            pool.shutdown();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(PuzzleBank.HEADER_SIZE + days * PuzzleBank.RECORD_SIZE);
+        buffer.putInt(PuzzleBank.MAGIC);
+        buffer.putInt(PuzzleBank.VERSION);
+        buffer.putLong(firstDate.toEpochDay());
+        buffer.putInt(days);
+        buffer.putInt(0);
+        for (int day = 0; day < days; day++) {
+            buffer.putInt(lexicon.code(PuzzleGenerator.startOf(pairs[day])));
+            buffer.putInt(lexicon.code(PuzzleGenerator.targetOf(pairs[day])));
+            buffer.putInt(pathCounts[day]);
+            buffer.putShort((short) moves[day]);
+            buffer.putShort((short) 0);
+        }
+        buffer.flip();
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return PuzzleBank.map(file);
+    }
+
+    // Draws one packed start/target pair per day, redrawing any unordered pair already used
+    static int[] choosePairs(PuzzleGenerator generator, int days, long seed, int minMoves, int maxMoves) {
+        if (minMoves < 1 || maxMoves > generator.getMaxDistance() || minMoves > maxMoves) {
+            throw new IllegalArgumentException("Moves must be within 1 to " + generator.getMaxDistance()
+                    + ", got " + minMoves + " to " + maxMoves);
+        }
+        long available = 0;
+        for (int level = minMoves; level <= maxMoves; level++) {
+            available += generator.pairCount(level);
+        }
+        if (available < days) {
+            throw new IllegalArgumentException("Only " + available + " distinct puzzles for " + days + " days");
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int levelCount = maxMoves - minMoves + 1;
+        int[] levels = new int[levelCount];
+        int[] usedPerLevel = new int[levelCount];
+        int[] pairs = new int[days];
+        Set<Integer> used = new HashSet<>();
+
+        for (int day = 0; day < days; day++) {
+            int slot = day % levelCount;
+            if (slot == 0) {
+                shuffleLevels(levels, minMoves, random);
+            }
+
+            // A level whose pairs have all been used gives way to the next one up, wrapping around
+            int level = levels[slot];
+            while (usedPerLevel[level - minMoves] == generator.pairCount(level)) {
+                level = level == maxMoves ? minMoves : level + 1;
+            }
+
+            int pair;
+            do {
+                pair = generator.samplePair(level, random);
+            } while (!used.add(unordered(pair)));
+            usedPerLevel[level - minMoves]++;
+            pairs[day] = pair;
+        }
+        return pairs;
+    }
+
+    // Fills levels with minMoves, minMoves + 1 ... in a random order
+    private static void shuffleLevels(int[] levels, int minMoves, SplittableRandom random) {
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = minMoves + i;
+        }
+        for (int i = levels.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = levels[i];
+            levels[i] = levels[j];
+            levels[j] = swap;
+        }
+    }
+
+    // Measures puzzles [from, to), splitting in half until a range is small enough to run directly
+    private static final class CountTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] offsets;
+        private final int[] edges;
+        private final int[] pairs;
+        private final int[] moves;
+        private final int[] pathCounts;
+        private final int from;
+        private final int to;
+
+        CountTask(int[] offsets, int[] edges, int[] pairs, int[] moves, int[] pathCounts, int from, int to) {
+            this.offsets = offsets;
+            this.edges = edges;
+            this.pairs = pairs;
+            this.moves = moves;
+            this.pathCounts = pathCounts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PUZZLES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CountTask(offsets, edges, pairs, moves, pathCounts, from, middle),
+                        new CountTask(offsets, edges, pairs, moves, pathCounts, middle, to));
+                return;
+            }
+
+            // Scratch arrays are shared by every puzzle in this leaf
+            int wordCount = offsets.length - 1;
+            int[] queue = new int[wordCount];
+            int[] distance = new int[wordCount];
+            int[] paths = new int[wordCount];
+            for (int day = from; day < to; day++) {
+                countPaths(day, queue, distance, paths);
+            }
+        }
+
+        // Breadth-first search from the start word, summing the number of shortest paths into each word
+        // Counts saturate at Integer.MAX_VALUE; the search stops once the target's layer is complete
+        private void countPaths(int day, int[] queue, int[] distance, int[] paths) {
+            int start = PuzzleGenerator.startOf(pairs[day]);
+            int target = PuzzleGenerator.targetOf(pairs[day]);
+
+            Arrays.fill(distance, -1);
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            distance[start] = 0;
+            paths[start] = 1;
+
+            while (head < tail) {
+                int current = queue[head++];
+                if (distance[current] >= distance[target] && distance[target] >= 0) {
+                    break;
+                }
+
+                for (int edge = offsets[current], end = offsets[current + 1]; edge < end; edge++) {
+                    int neighbour = edges[edge];
+                    if (distance[neighbour] < 0) {
+                        distance[neighbour] = distance[current] + 1;
+                        paths[neighbour] = paths[current];
+                        queue[tail++] = neighbour;
+                    } else if (distance[neighbour] == distance[current] + 1) {
+                        paths[neighbour] = (int) Math.min(Integer.MAX_VALUE, (long) paths[neighbour] + paths[current]);
+                    }
+                }
+            }
+
+            // Postcondition: every chosen pair is connected
+            assert distance[target] > 0 : "Puzzle words are not connected";
+
+            moves[day] = distance[target];
+            pathCounts[day] = paths[target];
+        }
+    }
+
+    // Packs a pair with the smaller id first, so both orientations count as the same puzzle
+    private static int unordered(int pair) {
+        int start = PuzzleGenerator.startOf(pair);
+        int target = PuzzleGenerator.targetOf(pair);
+        return start < target ? pair : (target << 16) | start;
+    }
+
+    // Offline generator: java PuzzleBankBuilder [dictionary.txt] [puzzles.bin] [first date] [days] [seed] [min moves] [max moves]
+    public static void main(String[] args) throws IOException {
+        String textPath = args.length > 0 ? args[0] : "dictionary.txt";
+        Path file = Paths.get(args.length > 1 ? args[1] : Model.PUZZLE_BANK_FILE);
+        LocalDate firstDate = args.length > 2 ? LocalDate.parse(args[2]) : LocalDate.now();
+        int days = args.length > 3 ? Integer.parseInt(args[3]) : 5 * 365;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+        int minMoves = args.length > 5 ? Integer.parseInt(args[5]) : 3;
+        int maxMoves = args.length > 6 ? Integer.parseInt(args[6]) : 8;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+
+        Lexicon lexicon = LexiconCache.shared(textPath);
+        long begin = System.nanoTime();
+        PuzzleBank bank = build(lexicon, file, firstDate, days, seed, minMoves, maxMoves, parallelism);
+        long elapsed = System.nanoTime() - begin;
+
+        System.out.printf("Wrote %d puzzles from %s to %s in %.1f ms on %d cores%n",
+                bank.size(), bank.getFirstDate(), file, elapsed / 1e6, parallelism);
+        System.out.println("First: " + bank.puzzleFor(firstDate));
+    }
+}
@@ -0,0 +1,88 @@
+import java.util.random.RandomGenerator;
+
+// Start/target pairs grouped by their optimal ladder length, for picking puzzles of a set difficulty
+// Buckets are filled once from the DistanceTable; after that a pair with an exact distance is one
+// random index into its bucket, with no copying, searching or retrying
+// Immutable once built and safe to share between threads; callers bring their own random source
+public final class PuzzleGenerator {
+    // Pairs are packed as two 16-bit word ids, smaller id first
+    private static final int ID_BITS = 16;
+    private static final int ID_MASK = (1 << ID_BITS) - 1;
+
+    private final int[][] buckets;  // Packed pairs indexed by distance
+
+    private PuzzleGenerator(int[][] buckets) {
+        this.buckets = buckets;
+    }
+
+    // Sorts every connected pair of distinct words into a bucket by distance
+    static PuzzleGenerator build(Lexicon lexicon, DistanceTable table) {
+        int wordCount = lexicon.size();
+        // Precondition: word ids fit in half a packed pair
+        assert wordCount <= ID_MASK + 1 : "Too many words to pack pairs";
+
+        // First pass sizes the buckets, second pass fills them
+        int[] counts = new int[256];
+        int maxDistance = 0;
+        for (int a = 0; a < wordCount; a++) {
+            for (int b = a + 1; b < wordCount; b++) {
+                int distance = table.distance(a, b);
+                if (distance > 0) {
+                    counts[distance]++;
+                    maxDistance = Math.max(maxDistance, distance);
+                }
+            }
+        }
+
+        int[][] buckets = new int[maxDistance + 1][];
+        for (int distance = 0; distance <= maxDistance; distance++) {
+            buckets[distance] = new int[counts[distance]];
+        }
+
+        int[] filled = new int[maxDistance + 1];
+        for (int a = 0; a < wordCount; a++) {
+            for (int b = a + 1; b < wordCount; b++) {
+                int distance = table.distance(a, b);
+                if (distance > 0) {
+                    buckets[distance][filled[distance]++] = (a << ID_BITS) | b;
+                }
+            }
+        }
+
+        return new PuzzleGenerator(buckets);
+    }
+
+    // Returns the longest optimal ladder between any two words
+    public int getMaxDistance() {
+        return buckets.length - 1;
+    }
+
+    // Returns the number of unordered word pairs whose optimal ladder has the given number of moves
+    public int pairCount(int distance) {
+        return distance > 0 && distance < buckets.length ? buckets[distance].length : 0;
+    }
+
+    // Picks a start/target pair exactly the given number of moves apart, in random order
+    // Throws IllegalArgumentException if no pair is that far apart
+    public int samplePair(int distance, RandomGenerator random) {
+        if (pairCount(distance) == 0) {
+            throw new IllegalArgumentException("No puzzle has an optimal length of " + distance
+                    + " (available: 1 to " + getMaxDistance() + ")");
+        }
+
+        int[] bucket = buckets[distance];
+        int pair = bucket[random.nextInt(bucket.length)];
+        // Buckets hold each pair once, so flip a coin for which word starts
+        return random.nextBoolean() ? pair : ((pair & ID_MASK) << ID_BITS) | (pair >>> ID_BITS);
+    }
+
+    // Returns the start word id of a packed pair
+    public static int startOf(int pair) {
+        return pair >>> ID_BITS;
+    }
+
+    // Returns the target word id of a packed pair
+    public static int targetOf(int pair) {
+        return pair & ID_MASK;
+    }
+}
@@ -1,10 +1,10 @@
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
-import java.util.Observable;
-import java.util.Observer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
-public class View implements Observer {
+public class View implements GameEventListener {
     private IModel model;
     private Controller controller;
     private JFrame frame;
@@ -19,18 +19,23 @@ public class View implements Observer {
     private JLabel statusLabel;
 
     private JPanel startWordPanel;
-    private JPanel attemptsPanel;
+    private AttemptsBoard attemptsBoard;
     private JPanel targetWordPanel;
     private JPanel currentInputPanel;
     private JButton[] keyButtons;
     private StringBuilder currentInput;
 
+    // Background search for the path dialog, and a count of game changes so a late result for an older game is dropped
+    private SwingWorker<List<String>, Void> pathWorker;
+    private int pathGeneration;
+
     // Initializes the view with model reference
     public View(IModel model) {
         this.model = model;
         this.currentInput = new StringBuilder();
         initComponents();
         updateBoard();
+        refreshBoard();
     }
 
     // Sets controller for handling user interactions
@@ -52,22 +57,21 @@ public class View implements Observer {
         boardPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
         // Create start word panel
-        startWordPanel = createWordPanel();
+        startWordPanel = AttemptsBoard.createWordPanel();
         boardPanel.add(startWordPanel);
         boardPanel.add(Box.createVerticalStrut(10));
 
         // Create attempts panel
-        attemptsPanel = new JPanel();
-        attemptsPanel.setLayout(new BoxLayout(attemptsPanel, BoxLayout.Y_AXIS));
-        boardPanel.add(attemptsPanel);
+        attemptsBoard = new AttemptsBoard();
+        boardPanel.add(attemptsBoard);
 
         // Create current input panel
-        currentInputPanel = createWordPanel();
+        currentInputPanel = AttemptsBoard.createWordPanel();
         boardPanel.add(currentInputPanel);
         boardPanel.add(Box.createVerticalStrut(10));
 
         // Create target word panel
-        targetWordPanel = createWordPanel();
+        targetWordPanel = AttemptsBoard.createWordPanel();
         boardPanel.add(targetWordPanel);
 
         // Add scroll pane for the board
@@ -246,102 +250,39 @@ public class View implements Observer {
         });
     }
 
-    // Creates a word panel with 4 cells for displaying letters
-    private JPanel createWordPanel() {
-        JPanel panel = new JPanel(new GridLayout(1, 4, 5, 5));
-        panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 70));
-
-        for (int i = 0; i < 4; i++) {
-            JLabel label = new JLabel(" ");
-            label.setOpaque(true);
-            label.setBackground(Color.LIGHT_GRAY);
-            label.setHorizontalAlignment(SwingConstants.CENTER);
-            label.setFont(new Font("Arial", Font.BOLD, 24));
-            label.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-            label.setPreferredSize(new Dimension(60, 60));
-            panel.add(label);
-        }
-
-        return panel;
-    }
-
     // Updates the board display with current game state
     private void updateBoard() {
-        // Update start word
-        String startWord = model.getStartWord().toUpperCase();
-        Component[] startComponents = startWordPanel.getComponents();
-        for (int j = 0; j < 4; j++) {
-            ((JLabel) startComponents[j]).setText(String.valueOf(startWord.charAt(j)));
-            ((JLabel) startComponents[j]).setBackground(Color.LIGHT_GRAY);
-        }
+        BoardRedrawEvent event = new BoardRedrawEvent();
+        event.begin();
 
-        // Update target word
-        String targetWord = model.getTargetWord().toUpperCase();
+        // Update start and target words
+        String startWord = model.getStartWord();
+        String targetWord = model.getTargetWord();
+        Component[] startComponents = startWordPanel.getComponents();
         Component[] targetComponents = targetWordPanel.getComponents();
         for (int j = 0; j < 4; j++) {
-            ((JLabel) targetComponents[j]).setText(String.valueOf(targetWord.charAt(j)));
-            ((JLabel) targetComponents[j]).setBackground(Color.LIGHT_GRAY);
+            AttemptsBoard.setTile((JLabel) startComponents[j], AttemptsBoard.letter(startWord.charAt(j)), AttemptsBoard.EMPTY);
+            AttemptsBoard.setTile((JLabel) targetComponents[j], AttemptsBoard.letter(targetWord.charAt(j)), AttemptsBoard.EMPTY);
         }
 
-        // Clear attempts panel and recreate it with all attempts
-        attemptsPanel.removeAll();
-
-        List<String> attempts = model.getAttempts();
-        for (int i = 0; i < attempts.size(); i++) {
-            String attempt = attempts.get(i).toUpperCase();
-            int[] feedback = model.getFeedback(attempt.toLowerCase());
-
-            JPanel attemptPanel = createWordPanel();
-            Component[] attemptComponents = attemptPanel.getComponents();
-
-            for (int j = 0; j < 4; j++) {
-                ((JLabel) attemptComponents[j]).setText(String.valueOf(attempt.charAt(j)));
-
-                // Set background color based on feedback
-                if (feedback[j] == 1) {
-                    ((JLabel) attemptComponents[j]).setBackground(new Color(76, 175, 80)); // Green
-                } else if (feedback[j] == 0) {
-                    ((JLabel) attemptComponents[j]).setBackground(new Color(255, 235, 59)); // Yellow
-                } else {
-                    ((JLabel) attemptComponents[j]).setBackground(new Color(158, 158, 158)); // Grey
-                }
-            }
-
-            attemptsPanel.add(attemptPanel);
-            attemptsPanel.add(Box.createVerticalStrut(5));
-        }
+        // Load the attempts into the painted board
+        attemptsBoard.showAttempts(model);
 
         // Clear current input panel
-        Component[] inputComponents = currentInputPanel.getComponents();
-        for (int j = 0; j < 4; j++) {
-            ((JLabel) inputComponents[j]).setText(" ");
-            ((JLabel) inputComponents[j]).setBackground(Color.LIGHT_GRAY);
-        }
+        updateCurrentInput("");
 
         // Update status label
-        statusLabel.setText("<html>Start: " + startWord + "<br>Target: " + targetWord + "</html>");
+        statusLabel.setText("<html>Start: " + startWord.toUpperCase() + "<br>Target: " + targetWord.toUpperCase() + "</html>");
 
-        // Revalidate and repaint the board panel
-        attemptsPanel.revalidate();
-        attemptsPanel.repaint();
-        boardPanel.revalidate();
-        boardPanel.repaint();
+        event.report("update", attemptsBoard.getRowCount(), attemptsBoard.getRowCount());
+    }
 
-        // Scroll to the bottom to show the current input
+    // Scrolls to the bottom to show the newest attempt and the current input
+    private void refreshBoard() {
         SwingUtilities.invokeLater(() -> {
             JScrollBar verticalScrollBar = boardScrollPane.getVerticalScrollBar();
             verticalScrollBar.setValue(verticalScrollBar.getMaximum());
         });
-
-        // Check if the game is won
-        if (model.hasWon()) {
-            showWinMessage();
-        }
-
-        // Show path if enabled
-        if (model.isShowPath()) {
-            showPath();
-        }
     }
 
     // Enables or disables the reset button based on game state
@@ -358,16 +299,13 @@ public class View implements Observer {
     public void updateCurrentInput(String input) {
         Component[] inputComponents = currentInputPanel.getComponents();
 
-        // Clear current input
+        // Display current input and clear the rest
         for (int j = 0; j < 4; j++) {
-            ((JLabel) inputComponents[j]).setText(" ");
-            ((JLabel) inputComponents[j]).setBackground(Color.LIGHT_GRAY);
-        }
-
-        // Display current input
-        for (int j = 0; j < input.length(); j++) {
-            ((JLabel) inputComponents[j]).setText(String.valueOf(input.charAt(j)).toUpperCase());
-            ((JLabel) inputComponents[j]).setBackground(Color.WHITE);
+            if (j < input.length()) {
+                AttemptsBoard.setTile((JLabel) inputComponents[j], AttemptsBoard.letter(input.charAt(j)), AttemptsBoard.TYPED);
+            } else {
+                AttemptsBoard.setTile((JLabel) inputComponents[j], " ", AttemptsBoard.EMPTY);
+            }
         }
     }
 
@@ -381,18 +319,56 @@ public class View implements Observer {
     }
 
     // Displays the optimal solution path from start to target word
+    // The search runs on a SwingWorker so the board keeps responding; it is cancelled if the game changes
+    // first, and its result is only shown if it still belongs to the current game
     public void showPath() {
-        List<String> path = model.findPath();
+        cancelPathSearch();
+        int generation = pathGeneration;
+        String startWord = model.getStartWord();
+        String targetWord = model.getTargetWord();
+        Callable<List<String>> search = model.findPathTask();
 
+        pathWorker = new SwingWorker<List<String>, Void>() {
+            @Override
+            protected List<String> doInBackground() throws Exception {
+                return search.call();
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || generation != pathGeneration) {
+                    return;
+                }
+                pathWorker = null;
+                try {
+                    showPathDialog(startWord, targetWord, get());
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Error finding path: " + e.getMessage());
+                }
+            }
+        };
+        pathWorker.execute();
+    }
+
+    // Abandons the path search in progress, if any
+    private void cancelPathSearch() {
+        pathGeneration++;
+        if (pathWorker != null) {
+            pathWorker.cancel(true);
+            pathWorker = null;
+        }
+    }
+
+    private void showPathDialog(String startWord, String targetWord, List<String> path) {
         if (path.isEmpty()) {
             JOptionPane.showMessageDialog(frame,
-                    "No path found from " + model.getStartWord().toUpperCase() +
-                            " to " + model.getTargetWord().toUpperCase(),
+                    "No path found from " + startWord.toUpperCase() +
+                            " to " + targetWord.toUpperCase(),
                     "No Path", JOptionPane.INFORMATION_MESSAGE);
         } else {
             StringBuilder pathStr = new StringBuilder("<html>Path from " +
-                    model.getStartWord().toUpperCase() + " to " +
-                    model.getTargetWord().toUpperCase() + ":<br>");
+                    startWord.toUpperCase() + " to " +
+                    targetWord.toUpperCase() + ":<br>");
 
             for (String word : path) {
                 pathStr.append(word.toUpperCase()).append("<br>");
@@ -411,9 +387,65 @@ public class View implements Observer {
         }
     }
 
-    // Observer pattern implementation to update UI when model changes
+    // Applies model changes: a new attempt adds one row, a new or reset game rebuilds the board,
+    // and a flag change only updates its check box
     @Override
-    public void update(Observable o, Object arg) {
-        updateBoard();
+    public void onGameEvents(List<GameEvent> events) {
+        boolean boardChanged = false;
+        boolean attemptAdded = false;
+        boolean pathShown = false;
+
+        for (GameEvent event : events) {
+            if (event instanceof GameEvent.AttemptAdded) {
+                GameEvent.AttemptAdded added = (GameEvent.AttemptAdded) event;
+                if (added.getIndex() == attemptsBoard.getRowCount()) {
+                    attemptsBoard.appendAttempt(added.getWord(), added.getFeedback());
+                } else if (added.getIndex() > attemptsBoard.getRowCount()) {
+                    // Missed a row; only a rebuild can catch up
+                    updateBoard();
+                }
+                boardChanged = true;
+                attemptAdded = true;
+            } else if (event instanceof GameEvent.FlagChanged) {
+                GameEvent.FlagChanged changed = (GameEvent.FlagChanged) event;
+                checkBoxFor(changed.getFlag()).setSelected(changed.getValue());
+                if (changed.getFlag() == GameEvent.Flag.SHOW_PATH) {
+                    pathShown = changed.getValue();
+                    if (!pathShown) {
+                        cancelPathSearch();
+                    }
+                }
+            } else {
+                // New words or cleared attempts: a path still being found is for the old game
+                cancelPathSearch();
+                updateBoard();
+                boardChanged = true;
+            }
+        }
+
+        if (boardChanged) {
+            refreshBoard();
+        }
+
+        // Check if the game is won
+        if (attemptAdded && model.hasWon()) {
+            showWinMessage();
+        }
+
+        // Show path if enabled
+        if ((boardChanged || pathShown) && model.isShowPath()) {
+            showPath();
+        }
+    }
+
+    private JCheckBox checkBoxFor(GameEvent.Flag flag) {
+        switch (flag) {
+            case SHOW_ERROR_MESSAGES:
+                return showErrorMessagesCheckBox;
+            case SHOW_PATH:
+                return showPathCheckBox;
+            default:
+                return randomWordsCheckBox;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Connected components of a WordGraph, labelled by one breadth-first sweep when the lexicon loads
+// Two words have a ladder between them exactly when they share a component, so areConnected() answers
+// "is there a path" in O(1). Members are grouped by component with every multi-word component first,
+// which lets a solvable start/target pair be sampled in O(1) without searching or retrying
+public final class WordComponents {
+    private final int[] labels;          // Component of each word id
+    private final int[] sizes;           // Number of words in each component
+    private final int[] memberStart;     // Offset of each component's words in members
+    private final int[] members;         // Word ids grouped by component
+    private final int pairableWords;     // Words in components with at least two words, at the front of members
+
+    private WordComponents(int[] labels, int[] sizes, int[] memberStart, int[] members, int pairableWords) {
+        this.labels = labels;
+        this.sizes = sizes;
+        this.memberStart = memberStart;
+        this.members = members;
+        this.pairableWords = pairableWords;
+    }
+
+    // Labels every component with a breadth-first search from each unlabelled word
+    static WordComponents build(WordGraph graph) {
+        int wordCount = graph.size();
+        int[] labels = new int[wordCount];
+        int[] queue = new int[wordCount];
+        int[] sizes = new int[wordCount];
+        int componentCount = 0;
+
+        Arrays.fill(labels, -1);
+        for (int seed = 0; seed < wordCount; seed++) {
+            if (labels[seed] >= 0) {
+                continue;
+            }
+
+            int component = componentCount++;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = seed;
+            labels[seed] = component;
+
+            while (head < tail) {
+                int current = queue[head++];
+                for (int edge = graph.edgeStart(current), end = graph.edgeEnd(current); edge < end; edge++) {
+                    int neighbour = graph.target(edge);
+                    if (labels[neighbour] < 0) {
+                        labels[neighbour] = component;
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+            sizes[component] = tail;
+        }
+
+        // Lay out multi-word components first, then the isolated words
+        int[] memberStart = new int[componentCount];
+        int offset = 0;
+        for (int component = 0; component < componentCount; component++) {
+            if (sizes[component] > 1) {
+                memberStart[component] = offset;
+                offset += sizes[component];
+            }
+        }
+        int pairableWords = offset;
+        for (int component = 0; component < componentCount; component++) {
+            if (sizes[component] == 1) {
+                memberStart[component] = offset++;
+            }
+        }
+
+        int[] members = new int[wordCount];
+        int[] filled = new int[componentCount];
+        for (int id = 0; id < wordCount; id++) {
+            int component = labels[id];
+            members[memberStart[component] + filled[component]++] = id;
+        }
+
+        return new WordComponents(labels, Arrays.copyOf(sizes, componentCount), memberStart, members, pairableWords);
+    }
+
+    // Returns the number of components
+    public int componentCount() {
+        return sizes.length;
+    }
+
+    // Returns the component a word belongs to
+    public int componentOf(int id) {
+        return labels[id];
+    }
+
+    // Returns the number of words in the component of a word
+    public int componentSize(int id) {
+        return sizes[labels[id]];
+    }
+
+    // Checks if a ladder exists between two words
+    public boolean areConnected(int id1, int id2) {
+        return labels[id1] == labels[id2];
+    }
+
+    // Returns the number of words that have at least one other reachable word
+    public int pairableWordCount() {
+        return pairableWords;
+    }
+
+    // Picks a word uniformly among those that can reach at least one other word
+    public int sampleConnectedWord(RandomGenerator random) {
+        // Precondition: some component has more than one word
+        assert pairableWords > 0 : "No two words are connected";
+
+        return members[random.nextInt(pairableWords)];
+    }
+
+    // Picks a word other than the given one, uniformly from its component
+    public int samplePartner(int id, RandomGenerator random) {
+        // Precondition: the word can reach another word
+        assert componentSize(id) > 1 : "Word has no reachable partner";
+
+        int component = labels[id];
+        int start = memberStart[component];
+        int size = sizes[component];
+
+        // Draw from all but the last slot; if that hits the word itself, take the last slot instead
+        int partner = members[start + random.nextInt(size - 1)];
+        return partner == id ? members[start + size - 1] : partner;
+    }
+}
@@ -0,0 +1,93 @@
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+// One-letter-difference graph over a Lexicon, stored in compressed sparse row form
+// Vertices are word ids; the neighbours of id are edges[offsets[id]] .. edges[offsets[id + 1] - 1]
+// Like Lexicon, the arrays may be heap buffers or slices of a memory-mapped snapshot
+public final class WordGraph {
+    private final IntBuffer offsets;  // size() + 1 entries
+    private final IntBuffer edges;    // Neighbour ids, sorted within each row
+
+    WordGraph(IntBuffer offsets, IntBuffer edges) {
+        assert offsets.limit() >= 1 : "Offsets must have a sentinel entry";
+        assert offsets.get(offsets.limit() - 1) == edges.limit() : "Last offset must equal the edge count";
+        this.offsets = offsets;
+        this.edges = edges;
+    }
+
+    // Builds the graph by trying every single-letter substitution of every word once
+    static WordGraph build(Lexicon lexicon) {
+        int wordCount = lexicon.size();
+        int[] offsets = new int[wordCount + 1];
+        int[] edges = new int[Math.max(16, wordCount * 4)];
+        int edgeCount = 0;
+
+        for (int id = 0; id < wordCount; id++) {
+            offsets[id] = edgeCount;
+            int code = lexicon.code(id);
+
+            for (int position = 0; position < Lexicon.WORD_LENGTH; position++) {
+                int current = Lexicon.letterAt(code, position);
+                for (int letter = 0; letter < 26; letter++) {
+                    if (letter == current) {
+                        continue; // Same letter, no change
+                    }
+
+                    int neighbour = lexicon.idOf(Lexicon.withLetter(code, position, letter));
+                    if (neighbour < 0) {
+                        continue;
+                    }
+                    if (edgeCount == edges.length) {
+                        edges = Arrays.copyOf(edges, edgeCount * 2);
+                    }
+                    edges[edgeCount++] = neighbour;
+                }
+            }
+
+            // Ids follow code order, so sorting keeps each row in alphabetical order
+            Arrays.sort(edges, offsets[id], edgeCount);
+        }
+        offsets[wordCount] = edgeCount;
+
+        return new WordGraph(IntBuffer.wrap(offsets), IntBuffer.wrap(Arrays.copyOf(edges, edgeCount)));
+    }
+
+    // Returns the number of vertices
+    public int size() {
+        return offsets.limit() - 1;
+    }
+
+    // Returns the number of directed edges (each undirected edge is stored in both rows)
+    public int edgeCount() {
+        return edges.limit();
+    }
+
+    // Returns the index of the first edge of a vertex
+    public int edgeStart(int id) {
+        return offsets.get(id);
+    }
+
+    // Returns the index one past the last edge of a vertex
+    public int edgeEnd(int id) {
+        return offsets.get(id + 1);
+    }
+
+    // Returns the number of neighbours of a vertex
+    public int degree(int id) {
+        return offsets.get(id + 1) - offsets.get(id);
+    }
+
+    // Returns the vertex an edge leads to
+    public int target(int edge) {
+        return edges.get(edge);
+    }
+
+    // Read-only views of the backing arrays, used when writing a snapshot
+    IntBuffer offsetTable() {
+        return offsets.asReadOnlyBuffer();
+    }
+
+    IntBuffer edgeTable() {
+        return edges.asReadOnlyBuffer();
+    }
+}